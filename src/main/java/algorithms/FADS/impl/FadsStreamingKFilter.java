@@ -1,18 +1,35 @@
 package algorithms.FADS.impl;
 
+import java.util.AbstractCollection;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Executor;
 
+import com.google.common.collect.Iterators;
 import core.InputRecord;
 import core.OutputRecord;
 import core.StreamingKFilter;
+import algorithms.FADS.impl.buffers.RecordsBuffer;
+import algorithms.FADS.impl.buffers.SortedRecordsIndex;
+import algorithms.FADS.impl.buffers.impl.ListRecordsBuffer;
+import algorithms.FADS.impl.batch.ReusableClusterSweep;
 import algorithms.FADS.impl.entities.Cluster;
+import algorithms.FADS.impl.eviction.ClusterEvictionPolicy;
+import algorithms.FADS.impl.eviction.impl.OldestFirstClusterEvictionPolicy;
+import algorithms.FADS.impl.execution.PipelinedStreamingKFilter;
+import algorithms.FADS.impl.spi.FadsComponentLoader;
+import algorithms.FADS.impl.stores.ClusterStore;
+import algorithms.FADS.impl.stores.impl.ListClusterStore;
+import algorithms.FADS.impl.strategies.FindKNearestNeighborsStrategy;
 import algorithms.FADS.impl.strategies.impl.DefaultFindKNearestNeighborsStrategy;
+import algorithms.FADS.impl.tuning.AutoTuningStreamingKFilter;
 
 import static algorithms.FADS.impl.ConfigurationManager.DELAY_CONSTRAINT;
 import static algorithms.FADS.impl.ConfigurationManager.K;
@@ -26,32 +43,173 @@ import static algorithms.FADS.impl.ConfigurationManager.REUSE_CONSTRAINT;
  */
 public class FadsStreamingKFilter implements StreamingKFilter
 {
-    private final List<InputRecord> recordsBuffer = new ArrayList<>(); // Set_tp in FADS paper
-    private final List<Cluster> reusableClusters = new ArrayList<>(); // Set_kc in FADS paper
+    private final RecordsBuffer recordsBuffer; // Set_tp in FADS paper
+    private final ClusterStore reusableClusters; // Set_kc in FADS paper
+    private final FindKNearestNeighborsStrategy findKNearestNeighborsStrategy;
+    private final ClusterEvictionPolicy clusterEvictionPolicy;
+    private final int clusterCapacity;
+    private final long memoryBudget;
+    private final int microBatchSize;
+    private final SortedRecordsIndex sortedRecords; // only kept for strategies which use it
     private Collection<OutputRecord> publishableRecords = new ArrayDeque<>();
     private int currentTime;
 
     public FadsStreamingKFilter()
     {
+        this(new ListRecordsBuffer(), new ListClusterStore(), new DefaultFindKNearestNeighborsStrategy());
+    }
+
+    public FadsStreamingKFilter(final RecordsBuffer recordsBuffer, final ClusterStore reusableClusters,
+                                final FindKNearestNeighborsStrategy findKNearestNeighborsStrategy)
+    {
+        this(recordsBuffer, reusableClusters, findKNearestNeighborsStrategy, new OldestFirstClusterEvictionPolicy(), Integer.MAX_VALUE, Long.MAX_VALUE, 1);
+    }
+
+    /**
+     * @param clusterCapacity the maximum number of reusable clusters kept at any time
+     * @param memoryBudget    the number of bytes the filter's state may take, as estimated by {@link MemoryFootprint}, including the sorted
+     *                        index of the buffer for strategies which use one
+     * @param microBatchSize  the number of records published together once the oldest record is due, 1 to publish one record at a time
+     * @throws IllegalArgumentException if the capacity is negative, the budget cannot hold a full records buffer and its index
+     *                                  or a micro-batch could run out of records to form clusters from
+     */
+    public FadsStreamingKFilter(final RecordsBuffer recordsBuffer, final ClusterStore reusableClusters,
+                                final FindKNearestNeighborsStrategy findKNearestNeighborsStrategy,
+                                final ClusterEvictionPolicy clusterEvictionPolicy, final int clusterCapacity, final long memoryBudget,
+                                final int microBatchSize)
+    {
+        if (microBatchSize < 1 || microBatchSize * K > DELAY_CONSTRAINT)
+        {
+            throw new IllegalArgumentException("Micro-batch size must be between 1 and " + DELAY_CONSTRAINT / K + ": " + microBatchSize);
+        }
+
+        if (clusterCapacity < 0)
+        {
+            throw new IllegalArgumentException("Cluster capacity must not be negative: " + clusterCapacity);
+        }
+
+        final long minimumBudget = MemoryFootprint.getMinimumBudget(findKNearestNeighborsStrategy.usesSortedRecords());
+
+        if (memoryBudget < minimumBudget)
+        {
+            throw new IllegalArgumentException("Memory budget of " + memoryBudget + " bytes is below the minimum of " + minimumBudget);
+        }
+
+        this.recordsBuffer = recordsBuffer;
+        this.reusableClusters = reusableClusters;
+        this.findKNearestNeighborsStrategy = findKNearestNeighborsStrategy;
+        this.clusterEvictionPolicy = clusterEvictionPolicy;
+        this.clusterCapacity = clusterCapacity;
+        this.memoryBudget = memoryBudget;
+        this.microBatchSize = microBatchSize;
+        this.sortedRecords = findKNearestNeighborsStrategy.usesSortedRecords() ? new SortedRecordsIndex() : null;
+    }
+
+    public static Builder builder()
+    {
+        return new Builder();
     }
 
     @Override
     public void processNewRecord(final InputRecord input)
     {
         currentTime = input.getTime();
-        recordsBuffer.add(input);
+        bufferRecord(input);
 
         cleanupClusters();
 
-        while (recordsBuffer.size() >= DELAY_CONSTRAINT)
+        while (isOldestRecordDue())
         {
-            publishRecord(recordsBuffer.remove(0));
+            if (microBatchSize > 1)
+            {
+                publishBatch(peekOldestRecords(Math.min(microBatchSize, recordsBuffer.size() / K)));
+            }
+            else
+            {
+                publishRecord(recordsBuffer.removeOldest());
+            }
         }
+
+        evictClusters();
+    }
+
+    /**
+     * The oldest record is due once the buffer is full, or once it has waited the delay constraint, which happens first when
+     * records have left the buffer out of order as neighbors of an earlier record. A record is never due while there are
+     * fewer than k records to form a cluster from.
+     */
+    private boolean isOldestRecordDue()
+    {
+        return recordsBuffer.size() >= DELAY_CONSTRAINT
+                || (recordsBuffer.size() >= K && currentTime - recordsBuffer.getRecords().iterator().next().getTime() >= DELAY_CONSTRAINT - 1);
     }
 
     private void cleanupClusters()
     {
-        reusableClusters.removeIf(cluster -> cluster.getAge(currentTime) >= REUSE_CONSTRAINT);
+        reusableClusters.removeExpired(currentTime, REUSE_CONSTRAINT);
+    }
+
+    /**
+     * Drops reusable clusters chosen by the eviction policy until the cluster set is within its capacity and the filter within its memory budget.
+     * Clusters are the only state that can be given up without breaking the delay constraint. Records not yet returned are left out, so
+     * which clusters are evicted does not depend on how often the caller asks for publishable records.
+     */
+    private void evictClusters()
+    {
+        while (reusableClusters.size() > 0
+                && (reusableClusters.size() > clusterCapacity || getEstimatedMemoryBytes() > memoryBudget))
+        {
+            reusableClusters.remove(clusterEvictionPolicy.selectVictim(reusableClusters.getClusters(), currentTime));
+        }
+    }
+
+    /**
+     * Moves the buffered records, the reusable clusters and the records not yet returned to the given filter, which continues the stream
+     * from the current time. This filter must not be used afterwards.
+     *
+     * @param successor a newly built filter, typically with different components
+     */
+    public void transferStateTo(final FadsStreamingKFilter successor)
+    {
+        while (recordsBuffer.size() > 0)
+        {
+            successor.bufferRecord(recordsBuffer.removeOldest());
+        }
+
+        for (final Cluster cluster : reusableClusters.getClusters())
+        {
+            successor.reusableClusters.add(cluster);
+        }
+
+        successor.publishableRecords.addAll(publishableRecords);
+        publishableRecords = new ArrayDeque<>();
+        successor.currentTime = currentTime;
+        successor.evictClusters();
+    }
+
+    /**
+     * @return the estimated number of bytes of the buffer with its sorted index if any and of the reusable clusters, which is kept
+     * within the memory budget
+     */
+    public long getEstimatedMemoryBytes()
+    {
+        return MemoryFootprint.FILTER_BYTES
+                + recordsBuffer.size() * MemoryFootprint.getBufferedRecordBytes(sortedRecords != null)
+                + reusableClusters.size() * MemoryFootprint.CLUSTER_BYTES;
+    }
+
+    /**
+     * @return the estimated number of bytes of the records published but not yet returned, which is bounded only by how often the
+     * caller asks for them
+     */
+    public long getEstimatedPendingOutputBytes()
+    {
+        return publishableRecords.size() * MemoryFootprint.OUTPUT_RECORD_BYTES;
+    }
+
+    public int getReusableClusterCount()
+    {
+        return reusableClusters.size();
     }
 
     @Override
@@ -69,17 +227,21 @@ public class FadsStreamingKFilter implements StreamingKFilter
 
     private void publishRecord(final InputRecord record)
     {
+        unindexRecord(record);
+
         final Optional<Cluster> reusableCluster = getLeastInfoLossReusableCluster(record);
-        final List<InputRecord> closestRecords = getClosestRecords(record, recordsBuffer);
+        final List<InputRecord> closestRecords = getClosestRecords(record, recordsBuffer.getRecords());
         final Cluster newCluster = new Cluster(closestRecords, currentTime);
 
         if (reusableCluster.isPresent() && reusableCluster.get().preferThan(newCluster, record))
         {
+            reusableCluster.get().markReused(currentTime, newCluster.getInfoLoss(record) - reusableCluster.get().getInfoLoss(record));
             addRecordToPublish(reusableCluster.get(), record);
             return;
         }
 
         reusableClusters.add(newCluster);
+        evictClusters();
 
         for (final InputRecord newClusterRecord : closestRecords)
         {
@@ -87,6 +249,135 @@ public class FadsStreamingKFilter implements StreamingKFilter
         }
 
         recordsBuffer.removeAll(closestRecords);
+        unindexRecords(closestRecords);
+    }
+
+    private void bufferRecord(final InputRecord record)
+    {
+        recordsBuffer.add(record);
+
+        if (sortedRecords != null)
+        {
+            sortedRecords.add(record);
+        }
+    }
+
+    private void unindexRecord(final InputRecord record)
+    {
+        if (sortedRecords != null)
+        {
+            sortedRecords.remove(record);
+        }
+    }
+
+    private void unindexRecords(final Collection<InputRecord> records)
+    {
+        if (sortedRecords != null)
+        {
+            sortedRecords.removeAll(records);
+        }
+    }
+
+    private List<InputRecord> peekOldestRecords(final int count)
+    {
+        final List<InputRecord> oldestRecords = new ArrayList<>(count);
+        final Iterator<InputRecord> records = recordsBuffer.getRecords().iterator();
+
+        while (oldestRecords.size() < count && records.hasNext())
+        {
+            oldestRecords.add(records.next());
+        }
+
+        return oldestRecords;
+    }
+
+    /**
+     * Publishes the due record together with the records which are next to become due, oldest first, making the same choices as
+     * {@link #publishRecord} one record at a time, with the configured {@link FindKNearestNeighborsStrategy} finding the neighbors,
+     * but with the cost of the cluster search and of the buffer updates shared across the batch:
+     * <ul>
+     *     <li>the reusable cluster of every record is resolved in a single sweep over the cluster set, and compared with the
+     *     clusters created earlier in the batch</li>
+     *     <li>the published records leave the buffer in a single pass at the end, and are hidden from the strategy until then</li>
+     * </ul>
+     * Records of the batch which were published as neighbors of an earlier one are skipped. Clusters are evicted once the whole
+     * batch is published, so every cluster resolved for the batch is still in the set when it is reused.
+     */
+    private void publishBatch(final List<InputRecord> batch)
+    {
+        final Cluster[] reusableClustersOfBatch = ReusableClusterSweep.resolve(reusableClusters.getClusters(), batch);
+        final List<Cluster> newClustersOfBatch = new ArrayList<>();
+        final Set<InputRecord> publishedRecords = Collections.newSetFromMap(new IdentityHashMap<>());
+        final Collection<InputRecord> remainingRecords = new AbstractCollection<InputRecord>()
+        {
+            @Override
+            public Iterator<InputRecord> iterator()
+            {
+                return Iterators.filter(recordsBuffer.getRecords().iterator(), record -> !publishedRecords.contains(record));
+            }
+
+            @Override
+            public int size()
+            {
+                return recordsBuffer.size() - publishedRecords.size();
+            }
+        };
+
+        for (int i = 0; i < batch.size(); i++)
+        {
+            final InputRecord record = batch.get(i);
+
+            if (!publishedRecords.add(record))
+            {
+                continue;
+            }
+
+            unindexRecord(record);
+
+            final Cluster reusableCluster = getLeastInfoLossCluster(record, reusableClustersOfBatch[i], newClustersOfBatch);
+            final List<InputRecord> closestRecords = getClosestRecords(record, remainingRecords);
+            final Cluster newCluster = new Cluster(closestRecords, currentTime);
+
+            if (reusableCluster != null && reusableCluster.preferThan(newCluster, record))
+            {
+                reusableCluster.markReused(currentTime, newCluster.getInfoLoss(record) - reusableCluster.getInfoLoss(record));
+                addRecordToPublish(reusableCluster, record);
+                continue;
+            }
+
+            reusableClusters.add(newCluster);
+            newClustersOfBatch.add(newCluster);
+
+            for (final InputRecord newClusterRecord : closestRecords)
+            {
+                addRecordToPublish(newCluster, newClusterRecord);
+            }
+
+            publishedRecords.addAll(closestRecords);
+            unindexRecords(closestRecords);
+        }
+
+        recordsBuffer.removeAll(publishedRecords);
+        evictClusters();
+    }
+
+    /**
+     * @return the cluster with the least info loss for the record, preferring the cluster found by the sweep and then the earliest
+     * created within the batch on a tie, as {@link ClusterStore#findLeastInfoLoss} would over the whole set
+     */
+    private static Cluster getLeastInfoLossCluster(final InputRecord record, final Cluster sweptCluster, final List<Cluster> newClustersOfBatch)
+    {
+        Cluster leastInfoLossCluster = sweptCluster;
+
+        for (final Cluster cluster : newClustersOfBatch)
+        {
+            if (cluster.covers(record) && (leastInfoLossCluster == null || cluster.getInfoLoss(record) < leastInfoLossCluster.getInfoLoss(record)))
+            {
+                leastInfoLossCluster = cluster;
+            }
+        }
+
+        return leastInfoLossCluster;
     }
 
     private void addRecordToPublish(final Cluster cluster, final InputRecord record)
@@ -96,13 +387,173 @@ public class FadsStreamingKFilter implements StreamingKFilter
 
     private Optional<Cluster> getLeastInfoLossReusableCluster(final InputRecord record)
     {
-        return reusableClusters.stream()
-                .filter(cluster -> cluster.covers(record))
-                .min(Comparator.comparing(cluster -> cluster.getInfoLoss(record)));
+        return reusableClusters.findLeastInfoLoss(record);
+    }
+
+    private List<InputRecord> getClosestRecords(final InputRecord record, final Collection<InputRecord> recordsBuffer)
+    {
+        if (sortedRecords == null)
+        {
+            return findKNearestNeighborsStrategy.find(K, record, recordsBuffer);
+        }
+
+        return findKNearestNeighborsStrategy.find(K, record, recordsBuffer, sortedRecords);
     }
 
-    private List<InputRecord> getClosestRecords(final InputRecord record, final List<InputRecord> recordsBuffer)
+    /**
+     * Builds a filter from components registered through {@link java.util.ServiceLoader}, selected by name.
+     */
+    public static class Builder
     {
-        return new DefaultFindKNearestNeighborsStrategy().find(K, record, recordsBuffer);
+        private String recordsBufferName = ListRecordsBuffer.NAME;
+        private String clusterStoreName = ListClusterStore.NAME;
+        private String findKNearestNeighborsStrategyName = DefaultFindKNearestNeighborsStrategy.NAME;
+        private String clusterEvictionPolicyName = OldestFirstClusterEvictionPolicy.NAME;
+        private int clusterCapacity = Integer.MAX_VALUE;
+        private long memoryBudget = Long.MAX_VALUE;
+        private int microBatchSize = 1;
+
+        private Builder()
+        {
+        }
+
+        private Builder(final Builder other)
+        {
+            this.recordsBufferName = other.recordsBufferName;
+            this.clusterStoreName = other.clusterStoreName;
+            this.findKNearestNeighborsStrategyName = other.findKNearestNeighborsStrategyName;
+            this.clusterEvictionPolicyName = other.clusterEvictionPolicyName;
+            this.clusterCapacity = other.clusterCapacity;
+            this.memoryBudget = other.memoryBudget;
+            this.microBatchSize = other.microBatchSize;
+        }
+
+        public String getRecordsBufferName()
+        {
+            return recordsBufferName;
+        }
+
+        public String getClusterStoreName()
+        {
+            return clusterStoreName;
+        }
+
+        public String getFindKNearestNeighborsStrategyName()
+        {
+            return findKNearestNeighborsStrategyName;
+        }
+
+        /**
+         * @return a new builder with the same settings
+         */
+        public Builder copy()
+        {
+            return new Builder(this);
+        }
+
+        public Builder withRecordsBuffer(final String name)
+        {
+            this.recordsBufferName = name;
+            return this;
+        }
+
+        public Builder withClusterStore(final String name)
+        {
+            this.clusterStoreName = name;
+            return this;
+        }
+
+        public Builder withFindKNearestNeighborsStrategy(final String name)
+        {
+            this.findKNearestNeighborsStrategyName = name;
+            return this;
+        }
+
+        public Builder withClusterEvictionPolicy(final String name)
+        {
+            this.clusterEvictionPolicyName = name;
+            return this;
+        }
+
+        /**
+         * @param clusterCapacity the maximum number of reusable clusters, unbounded by default
+         */
+        public Builder withClusterCapacity(final int clusterCapacity)
+        {
+            this.clusterCapacity = clusterCapacity;
+            return this;
+        }
+
+        /**
+         * Records published but not yet returned are not part of the budget, since only the caller can bound them. With the default
+         * strategy a publish moves the whole buffer to them at once, so a caller packing filters by budget should allow for up to
+         * {@link ConfigurationManager#DELAY_CONSTRAINT} undrained records of {@link MemoryFootprint#OUTPUT_RECORD_BYTES} each on top.
+         *
+         * @param memoryBudget the number of bytes the buffer and the reusable clusters may take, unbounded by default
+         */
+        public Builder withMemoryBudget(final long memoryBudget)
+        {
+            this.memoryBudget = memoryBudget;
+            return this;
+        }
+
+        /**
+         * @param microBatchSize the number of records published together once the oldest record is due, 1 (the default) to publish
+         *                       one record at a time
+         */
+        public Builder withMicroBatchSize(final int microBatchSize)
+        {
+            this.microBatchSize = microBatchSize;
+            return this;
+        }
+
+        public FadsStreamingKFilter build()
+        {
+            return new FadsStreamingKFilter(
+                    FadsComponentLoader.load(RecordsBuffer.class, recordsBufferName),
+                    FadsComponentLoader.load(ClusterStore.class, clusterStoreName),
+                    FadsComponentLoader.load(FindKNearestNeighborsStrategy.class, findKNearestNeighborsStrategyName),
+                    FadsComponentLoader.load(ClusterEvictionPolicy.class, clusterEvictionPolicyName),
+                    clusterCapacity,
+                    memoryBudget,
+                    microBatchSize);
+        }
+
+        /**
+         * Builds a filter which runs the components selected on this builder while it copies the first {@code sampleSize} records,
+         * calibrates every registered combination of components on the copies in the background and then continues with the fastest
+         * one whose distortion stays within {@code maxDistortion}.
+         *
+         * @param sampleSize    the number of records to calibrate on, at least the delay constraint
+         * @param maxDistortion the highest acceptable RMSE distortion, normalised by the range of the sample
+         * @return an auto-tuning filter
+         */
+        public StreamingKFilter buildAutoTuning(final int sampleSize, final double maxDistortion)
+        {
+            return new AutoTuningStreamingKFilter(this, sampleSize, maxDistortion);
+        }
+
+        /**
+         * Builds a filter whose ingest call only enqueues the record on a bounded queue, with cluster formation running on a worker
+         * executor that uses virtual threads where the runtime supports them. The sequence of published records is identical to {@link #build()}.
+         *
+         * @return a pipelined filter which should be closed once the stream ends
+         */
+        public PipelinedStreamingKFilter buildPipelined()
+        {
+            return new PipelinedStreamingKFilter(build());
+        }
+
+        /**
+         * Same as {@link #buildPipelined()}, running cluster formation on the given executor.
+         *
+         * @param executor      the executor to run cluster formation on, which stays owned by the caller
+         * @param queueCapacity the number of records that may wait for cluster formation before ingest blocks
+         * @return a pipelined filter
+         */
+        public PipelinedStreamingKFilter buildPipelined(final Executor executor, final int queueCapacity)
+        {
+            return new PipelinedStreamingKFilter(build(), executor, queueCapacity);
+        }
     }
 }
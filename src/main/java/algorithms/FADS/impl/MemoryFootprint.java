@@ -0,0 +1,68 @@
+package algorithms.FADS.impl;
+
+/**
+ * Estimated heap sizes of the state a filter holds, assuming a 64-bit JVM with compressed references.
+ * <p>
+ * The estimates are deliberately on the high side, so a filter kept within a byte budget by these numbers stays within it on the heap.
+ */
+public final class MemoryFootprint
+{
+    /**
+     * An {@link core.InputRecord} (24 bytes) plus the largest per-entry overhead of a records buffer: a linked hash set entry (40 bytes)
+     * and its share of the hash table, up to three slots at the default load factor just after the table has doubled (12 bytes).
+     */
+    public static final long BUFFERED_RECORD_BYTES = 80;
+
+    /**
+     * The extra cost of a buffered record when the strategy makes the filter keep a {@link algorithms.FADS.impl.buffers.SortedRecordsIndex}:
+     * a tree map entry (40 bytes), its boxed key (16 bytes) and a deque for the records of the same value (24 bytes) with its default
+     * array (88 bytes), since records rarely share a value.
+     */
+    public static final long SORTED_RECORD_BYTES = 192;
+
+    /**
+     * A {@link algorithms.FADS.impl.entities.Cluster} (48 bytes) with its range (24 bytes), two cuts (32 bytes) and two boxed bounds (32 bytes),
+     * plus a slot in the cluster store with room to grow (8 bytes).
+     */
+    public static final long CLUSTER_BYTES = 160;
+
+    /**
+     * An {@link core.OutputRecord} (40 bytes) plus a slot in the queue of publishable records.
+     */
+    public static final long OUTPUT_RECORD_BYTES = 48;
+
+    /**
+     * The fixed cost of a filter: its own fields, the collections it holds and the components it was built from.
+     */
+    public static final long FILTER_BYTES = 512;
+
+    private MemoryFootprint()
+    {
+    }
+
+    /**
+     * @return the smallest budget a filter without a sorted index can run with, covering a full records buffer and no reusable clusters
+     */
+    public static long getMinimumBudget()
+    {
+        return getMinimumBudget(false);
+    }
+
+    /**
+     * @param sortedRecords whether the filter keeps a sorted index of its buffer
+     * @return the smallest budget the filter can run with, covering a full records buffer, its index if any and no reusable clusters
+     */
+    public static long getMinimumBudget(final boolean sortedRecords)
+    {
+        return FILTER_BYTES + ConfigurationManager.DELAY_CONSTRAINT * getBufferedRecordBytes(sortedRecords);
+    }
+
+    /**
+     * @param sortedRecords whether the filter keeps a sorted index of its buffer
+     * @return the estimated cost of a buffered record
+     */
+    public static long getBufferedRecordBytes(final boolean sortedRecords)
+    {
+        return sortedRecords ? BUFFERED_RECORD_BYTES + SORTED_RECORD_BYTES : BUFFERED_RECORD_BYTES;
+    }
+}
@@ -0,0 +1,157 @@
+package algorithms.FADS.impl.batch;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.TreeSet;
+
+import core.InputRecord;
+
+import algorithms.FADS.impl.entities.Cluster;
+
+/**
+ * Resolves the least info loss reusable cluster for every record of a micro-batch in a single sweep over the clusters sorted by lower bound.
+ * <p>
+ * Walking the records in value order, a cluster becomes active once its lower bound is reached and inactive once its upper bound is passed,
+ * so every active cluster covers the current record and the best one has the anonymised value closest to it.
+ * Ties are broken in favour of the cluster which comes first in the given order, as in {@link algorithms.FADS.impl.stores.ClusterStore#findLeastInfoLoss}
+ * when given the clusters of the store.
+ * <p>
+ * The clusters are sorted again for every batch rather than kept sorted as they are added, expire and are evicted, which would cost a
+ * second structure per cluster next to the store. The set only holds the clusters of the last {@link algorithms.FADS.impl.ConfigurationManager#REUSE_CONSTRAINT}
+ * time units, so sorting its C clusters once, O(C log C), replaces the B scans of all C clusters the records of a batch of B would
+ * otherwise each make, and is cheaper as soon as B exceeds log C, around 8 for a couple of hundred clusters.
+ */
+public final class ReusableClusterSweep
+{
+    private static final Comparator<Candidate> BY_LOWER_BOUND = Comparator.comparingDouble(candidate -> candidate.lowerBound);
+    private static final Comparator<Candidate> BY_UPPER_BOUND = Comparator.comparingDouble(candidate -> candidate.upperBound);
+    private static final Comparator<Candidate> BY_ANONYMISED_VALUE = Comparator.<Candidate>comparingDouble(candidate -> candidate.anonymisedValue)
+            .thenComparingInt(candidate -> candidate.ordinal);
+
+    private ReusableClusterSweep()
+    {
+    }
+
+    /**
+     * @param clusters the reusable clusters, in the order of preference on a tie
+     * @param batch    the records of the batch
+     * @return the least info loss covering cluster of each record at the same index as the record, or null where none covers it
+     */
+    public static Cluster[] resolve(final Collection<Cluster> clusters, final List<InputRecord> batch)
+    {
+        final Cluster[] result = new Cluster[batch.size()];
+        final Candidate[] byLowerBound = new Candidate[clusters.size()];
+        int ordinal = 0;
+
+        for (final Cluster cluster : clusters)
+        {
+            byLowerBound[ordinal] = new Candidate(cluster, ordinal);
+            ordinal++;
+        }
+
+        Arrays.sort(byLowerBound, BY_LOWER_BOUND);
+
+        final Integer[] byValue = new Integer[batch.size()];
+        Arrays.setAll(byValue, index -> index);
+        Arrays.sort(byValue, Comparator.comparingDouble(index -> batch.get(index).getRawValue()));
+
+        final TreeSet<Candidate> activeByAnonymisedValue = new TreeSet<>(BY_ANONYMISED_VALUE);
+        final PriorityQueue<Candidate> activeByUpperBound = new PriorityQueue<>(Math.max(1, byLowerBound.length), BY_UPPER_BOUND);
+        int nextCluster = 0;
+
+        for (final int index : byValue)
+        {
+            final InputRecord record = batch.get(index);
+            final double value = record.getRawValue();
+
+            while (nextCluster < byLowerBound.length && byLowerBound[nextCluster].lowerBound <= value)
+            {
+                final Candidate candidate = byLowerBound[nextCluster++];
+                activeByAnonymisedValue.add(candidate);
+                activeByUpperBound.add(candidate);
+            }
+
+            while (!activeByUpperBound.isEmpty() && activeByUpperBound.peek().upperBound < value)
+            {
+                activeByAnonymisedValue.remove(activeByUpperBound.poll());
+            }
+
+            result[index] = selectClosest(record, firstBelow(activeByAnonymisedValue, value), firstAbove(activeByAnonymisedValue, value));
+        }
+
+        return result;
+    }
+
+    /**
+     * @return the earliest in order of the active clusters with the greatest anonymised value not above the value, or null if there is none
+     */
+    private static Candidate firstBelow(final TreeSet<Candidate> activeByAnonymisedValue, final double value)
+    {
+        final Candidate last = activeByAnonymisedValue.floor(Candidate.probe(value, Integer.MAX_VALUE));
+        return last == null ? null : activeByAnonymisedValue.ceiling(Candidate.probe(last.anonymisedValue, -1));
+    }
+
+    /**
+     * @return the earliest in order of the active clusters with the least anonymised value not below the value, or null if there is none
+     */
+    private static Candidate firstAbove(final TreeSet<Candidate> activeByAnonymisedValue, final double value)
+    {
+        return activeByAnonymisedValue.ceiling(Candidate.probe(value, -1));
+    }
+
+    private static Cluster selectClosest(final InputRecord record, final Candidate below, final Candidate above)
+    {
+        if (below == null || above == null)
+        {
+            return below == null ? (above == null ? null : above.cluster) : below.cluster;
+        }
+
+        final double belowInfoLoss = below.cluster.getInfoLoss(record);
+        final double aboveInfoLoss = above.cluster.getInfoLoss(record);
+
+        if (belowInfoLoss != aboveInfoLoss)
+        {
+            return belowInfoLoss < aboveInfoLoss ? below.cluster : above.cluster;
+        }
+
+        return below.ordinal <= above.ordinal ? below.cluster : above.cluster;
+    }
+
+    /**
+     * A cluster with its bounds read once and its position in the given order.
+     */
+    private static final class Candidate
+    {
+        private final Cluster cluster;
+        private final int ordinal;
+        private final double lowerBound;
+        private final double upperBound;
+        private final double anonymisedValue;
+
+        private Candidate(final Cluster cluster, final int ordinal)
+        {
+            this.cluster = cluster;
+            this.ordinal = ordinal;
+            this.lowerBound = cluster.getLowerBound();
+            this.upperBound = cluster.getUpperBound();
+            this.anonymisedValue = cluster.getAnonymisedValue();
+        }
+
+        private Candidate(final double anonymisedValue, final int ordinal)
+        {
+            this.cluster = null;
+            this.ordinal = ordinal;
+            this.lowerBound = anonymisedValue;
+            this.upperBound = anonymisedValue;
+            this.anonymisedValue = anonymisedValue;
+        }
+
+        private static Candidate probe(final double anonymisedValue, final int ordinal)
+        {
+            return new Candidate(anonymisedValue, ordinal);
+        }
+    }
+}
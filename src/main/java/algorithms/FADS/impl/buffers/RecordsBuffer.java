@@ -0,0 +1,29 @@
+package algorithms.FADS.impl.buffers;
+
+import java.util.Collection;
+
+import core.InputRecord;
+
+import algorithms.FADS.impl.spi.FadsComponent;
+
+/**
+ * Holds the records which are waiting to be published (Set_tp in FADS paper), oldest first.
+ */
+public interface RecordsBuffer extends FadsComponent
+{
+    void add(InputRecord record);
+
+    /**
+     * @return the oldest record, which is removed from the buffer
+     */
+    InputRecord removeOldest();
+
+    void removeAll(Collection<InputRecord> records);
+
+    int size();
+
+    /**
+     * @return a read-only view of the buffered records in arrival order
+     */
+    Collection<InputRecord> getRecords();
+}
@@ -0,0 +1,110 @@
+package algorithms.FADS.impl.buffers;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+import core.InputRecord;
+
+/**
+ * The buffered records sorted by value, kept up to date one record at a time, so the records closest to a value are found by walking
+ * outwards from it instead of searching the whole buffer.
+ * <p>
+ * Records with the same value are kept in arrival order.
+ */
+public final class SortedRecordsIndex
+{
+    private final NavigableMap<Double, Deque<InputRecord>> recordsByValue = new TreeMap<>();
+
+    public void add(final InputRecord record)
+    {
+        recordsByValue.computeIfAbsent(record.getRawValue(), value -> new ArrayDeque<>()).addLast(record);
+    }
+
+    /**
+     * @param record a record, which is ignored if it is not in the index
+     */
+    public void remove(final InputRecord record)
+    {
+        final Deque<InputRecord> sameValue = recordsByValue.get(record.getRawValue());
+
+        if (sameValue == null || !sameValue.removeFirstOccurrence(record))
+        {
+            return;
+        }
+
+        if (sameValue.isEmpty())
+        {
+            recordsByValue.remove(record.getRawValue());
+        }
+    }
+
+    public void removeAll(final Collection<InputRecord> records)
+    {
+        for (final InputRecord record : records)
+        {
+            remove(record);
+        }
+    }
+
+    /**
+     * @param count      the number of records to find
+     * @param baseRecord the record to measure the distance from, which should not be in the index
+     * @return the {@code count} records closest to the base record, closest first and the earliest first at the same distance,
+     * or fewer if the index does not hold enough
+     */
+    public List<InputRecord> findClosest(final int count, final InputRecord baseRecord)
+    {
+        if (count == 0)
+        {
+            return new ArrayList<>();
+        }
+
+        final Comparator<InputRecord> closestFirst = Comparator.<InputRecord>comparingDouble(record -> getDistance(record, baseRecord))
+                .thenComparingInt(InputRecord::getTime);
+        final Iterator<Deque<InputRecord>> below = recordsByValue.headMap(baseRecord.getRawValue(), true).descendingMap().values().iterator();
+        final Iterator<Deque<InputRecord>> above = recordsByValue.tailMap(baseRecord.getRawValue(), false).values().iterator();
+        final List<InputRecord> candidates = new ArrayList<>(count + 1);
+        Deque<InputRecord> nextBelow = below.hasNext() ? below.next() : null;
+        Deque<InputRecord> nextAbove = above.hasNext() ? above.next() : null;
+
+        // takes whole groups of equal values, and keeps going while the next group is as close as the last record needed,
+        // so the time order among records at the same distance is settled by the sort below
+        while (nextBelow != null || nextAbove != null)
+        {
+            final boolean takeBelow = nextAbove == null
+                    || (nextBelow != null && getDistance(nextBelow.peekFirst(), baseRecord) <= getDistance(nextAbove.peekFirst(), baseRecord));
+            final Deque<InputRecord> next = takeBelow ? nextBelow : nextAbove;
+
+            if (candidates.size() >= count && getDistance(next.peekFirst(), baseRecord) > getDistance(candidates.get(count - 1), baseRecord))
+            {
+                break;
+            }
+
+            candidates.addAll(next);
+
+            if (takeBelow)
+            {
+                nextBelow = below.hasNext() ? below.next() : null;
+            }
+            else
+            {
+                nextAbove = above.hasNext() ? above.next() : null;
+            }
+        }
+
+        candidates.sort(closestFirst);
+        return candidates.size() > count ? new ArrayList<>(candidates.subList(0, count)) : candidates;
+    }
+
+    private static double getDistance(final InputRecord record, final InputRecord baseRecord)
+    {
+        return Math.abs(record.getRawValue() - baseRecord.getRawValue());
+    }
+}
@@ -0,0 +1,64 @@
+package algorithms.FADS.impl.buffers.impl;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import core.InputRecord;
+
+import algorithms.FADS.impl.buffers.RecordsBuffer;
+
+/**
+ * Keeps arrival order in a linked hash set, so taking the oldest record and removing a published cluster cost O(1) per record
+ * instead of shifting an array.
+ */
+public class LinkedRecordsBuffer implements RecordsBuffer
+{
+    public static final String NAME = "linked";
+
+    private final Set<InputRecord> records = new LinkedHashSet<>();
+
+    @Override
+    public String getName()
+    {
+        return NAME;
+    }
+
+    @Override
+    public void add(final InputRecord record)
+    {
+        records.add(record);
+    }
+
+    @Override
+    public InputRecord removeOldest()
+    {
+        final Iterator<InputRecord> iterator = records.iterator();
+        final InputRecord oldest = iterator.next();
+        iterator.remove();
+        return oldest;
+    }
+
+    @Override
+    public void removeAll(final Collection<InputRecord> records)
+    {
+        for (final InputRecord record : records)
+        {
+            this.records.remove(record);
+        }
+    }
+
+    @Override
+    public int size()
+    {
+        return records.size();
+    }
+
+    @Override
+    public Collection<InputRecord> getRecords()
+    {
+        return Collections.unmodifiableSet(records);
+    }
+}
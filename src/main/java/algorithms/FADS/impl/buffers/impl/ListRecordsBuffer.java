@@ -0,0 +1,53 @@
+package algorithms.FADS.impl.buffers.impl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import core.InputRecord;
+
+import algorithms.FADS.impl.buffers.RecordsBuffer;
+
+public class ListRecordsBuffer implements RecordsBuffer
+{
+    public static final String NAME = "list";
+
+    private final List<InputRecord> records = new ArrayList<>();
+
+    @Override
+    public String getName()
+    {
+        return NAME;
+    }
+
+    @Override
+    public void add(final InputRecord record)
+    {
+        records.add(record);
+    }
+
+    @Override
+    public InputRecord removeOldest()
+    {
+        return records.remove(0);
+    }
+
+    @Override
+    public void removeAll(final Collection<InputRecord> records)
+    {
+        this.records.removeAll(records);
+    }
+
+    @Override
+    public int size()
+    {
+        return records.size();
+    }
+
+    @Override
+    public Collection<InputRecord> getRecords()
+    {
+        return Collections.unmodifiableList(records);
+    }
+}
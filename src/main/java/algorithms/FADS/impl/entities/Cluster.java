@@ -11,12 +11,16 @@ public class Cluster
     private final double anonymisedValue;
     private final int creationTime;
     private final Range<Double> range;
+    private int lastReuseTime;
+    private int reuseCount;
+    private double infoLossSaved;
 
     public Cluster(final List<InputRecord> records, final int creationTime)
     {
         this.anonymisedValue = records.stream().mapToDouble(InputRecord::getRawValue).average().getAsDouble();
         this.creationTime = creationTime;
         this.range = Range.encloseAll(records.stream().map(InputRecord::getRawValue).collect(Collectors.toList()));
+        this.lastReuseTime = creationTime;
     }
 
     public double getAnonymisedValue()
@@ -29,6 +33,56 @@ public class Cluster
         return currentTime - creationTime;
     }
 
+    public int getCreationTime()
+    {
+        return creationTime;
+    }
+
+    /**
+     * @return the time this cluster was last reused, or its creation time if it was never reused
+     */
+    public int getLastReuseTime()
+    {
+        return lastReuseTime;
+    }
+
+    /**
+     * @return the number of records published with this cluster after it was created
+     */
+    public int getReuseCount()
+    {
+        return reuseCount;
+    }
+
+    /**
+     * @return the info loss saved over all reuses compared to the new clusters that would have been created instead
+     */
+    public double getInfoLossSaved()
+    {
+        return infoLossSaved;
+    }
+
+    /**
+     * @param currentTime   the time of the reuse
+     * @param infoLossSaved how much less info loss this cluster has for the record than the new cluster it was preferred to
+     */
+    public void markReused(final int currentTime, final double infoLossSaved)
+    {
+        this.lastReuseTime = currentTime;
+        this.reuseCount++;
+        this.infoLossSaved += infoLossSaved;
+    }
+
+    public double getLowerBound()
+    {
+        return range.lowerEndpoint();
+    }
+
+    public double getUpperBound()
+    {
+        return range.upperEndpoint();
+    }
+
     public boolean covers(final InputRecord record)
     {
         return range.contains(record.getRawValue());
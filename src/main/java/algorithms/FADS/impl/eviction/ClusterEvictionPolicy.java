@@ -0,0 +1,19 @@
+package algorithms.FADS.impl.eviction;
+
+import java.util.Collection;
+
+import algorithms.FADS.impl.entities.Cluster;
+import algorithms.FADS.impl.spi.FadsComponent;
+
+/**
+ * A policy to pick which reusable cluster is dropped when the cluster set is over its capacity or the filter is over its memory budget.
+ */
+public interface ClusterEvictionPolicy extends FadsComponent
+{
+    /**
+     * @param clusters    the reusable clusters in creation order, never empty
+     * @param currentTime the time of the latest input record
+     * @return the cluster to evict
+     */
+    Cluster selectVictim(Collection<Cluster> clusters, int currentTime);
+}
@@ -0,0 +1,29 @@
+package algorithms.FADS.impl.eviction.impl;
+
+import java.util.Collection;
+import java.util.Comparator;
+
+import algorithms.FADS.impl.entities.Cluster;
+import algorithms.FADS.impl.eviction.ClusterEvictionPolicy;
+
+/**
+ * Evicts the cluster which has gone longest without being reused, counting its creation as a use.
+ */
+public class LeastRecentlyReusedClusterEvictionPolicy implements ClusterEvictionPolicy
+{
+    public static final String NAME = "least-recently-reused";
+
+    @Override
+    public String getName()
+    {
+        return NAME;
+    }
+
+    @Override
+    public Cluster selectVictim(final Collection<Cluster> clusters, final int currentTime)
+    {
+        return clusters.stream()
+                .min(Comparator.comparingInt(Cluster::getLastReuseTime))
+                .get();
+    }
+}
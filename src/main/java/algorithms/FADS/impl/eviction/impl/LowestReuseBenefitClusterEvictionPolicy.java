@@ -0,0 +1,36 @@
+package algorithms.FADS.impl.eviction.impl;
+
+import java.util.Collection;
+import java.util.Comparator;
+
+import algorithms.FADS.impl.entities.Cluster;
+import algorithms.FADS.impl.eviction.ClusterEvictionPolicy;
+
+/**
+ * Evicts the cluster which has saved the least info loss through reuse, oldest first on a tie.
+ * <p>
+ * Clusters created at the current time have had no chance to be reused yet, so they are only evicted when every cluster is that new.
+ * Otherwise a full set of reused clusters would evict each new cluster right after it is created and never take in new ones.
+ */
+public class LowestReuseBenefitClusterEvictionPolicy implements ClusterEvictionPolicy
+{
+    public static final String NAME = "lowest-reuse-benefit";
+
+    private static final Comparator<Cluster> LOWEST_BENEFIT_FIRST = Comparator.comparingDouble(Cluster::getInfoLossSaved)
+            .thenComparingInt(Cluster::getCreationTime);
+
+    @Override
+    public String getName()
+    {
+        return NAME;
+    }
+
+    @Override
+    public Cluster selectVictim(final Collection<Cluster> clusters, final int currentTime)
+    {
+        return clusters.stream()
+                .filter(cluster -> cluster.getCreationTime() < currentTime)
+                .min(LOWEST_BENEFIT_FIRST)
+                .orElseGet(() -> clusters.stream().min(LOWEST_BENEFIT_FIRST).get());
+    }
+}
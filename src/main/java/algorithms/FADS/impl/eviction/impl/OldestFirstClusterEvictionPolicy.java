@@ -0,0 +1,29 @@
+package algorithms.FADS.impl.eviction.impl;
+
+import java.util.Collection;
+import java.util.Comparator;
+
+import algorithms.FADS.impl.entities.Cluster;
+import algorithms.FADS.impl.eviction.ClusterEvictionPolicy;
+
+/**
+ * Evicts the cluster created first, which is also the next one to expire by the reuse constraint.
+ */
+public class OldestFirstClusterEvictionPolicy implements ClusterEvictionPolicy
+{
+    public static final String NAME = "oldest";
+
+    @Override
+    public String getName()
+    {
+        return NAME;
+    }
+
+    @Override
+    public Cluster selectVictim(final Collection<Cluster> clusters, final int currentTime)
+    {
+        return clusters.stream()
+                .min(Comparator.comparingInt(Cluster::getCreationTime))
+                .get();
+    }
+}
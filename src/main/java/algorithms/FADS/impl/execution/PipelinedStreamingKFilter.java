@@ -0,0 +1,302 @@
+package algorithms.FADS.impl.execution;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import core.InputRecord;
+import core.OutputRecord;
+import core.StreamingKFilter;
+
+/**
+ * Runs a filter as a pipeline of three stages, so the ingest thread never does any cluster formation:
+ * <ol>
+ *     <li>ingest: {@link #processNewRecord} puts the record on a bounded queue and returns, waiting only while the queue is full</li>
+ *     <li>cluster formation: a single worker on the executor takes records off the queue in arrival order, in batches of whatever has
+ *     queued up, runs them through the filter and hands the records it publishes to the output stage</li>
+ *     <li>output: {@link #returnPublishableRecords} takes whatever the worker has handed over so far without waiting for it</li>
+ * </ol>
+ * The worker is the only stage touching the filter and processes records strictly in arrival order, so the sequence of returned records
+ * is exactly the sequence the synchronous filter returns. Only the split of that sequence across calls depends on timing;
+ * {@link #flush()} waits for every submitted record when a caller needs the exact synchronous split.
+ */
+public class PipelinedStreamingKFilter implements StreamingKFilter, AutoCloseable
+{
+    public static final int DEFAULT_QUEUE_CAPACITY = 4096;
+
+    private static final InputRecord END_OF_STREAM = new InputRecord(Integer.MIN_VALUE, Double.NaN);
+
+    private final StreamingKFilter delegate;
+    private final BlockingQueue<InputRecord> ingestQueue;
+    private final Queue<OutputRecord> publishedRecords = new ConcurrentLinkedQueue<>();
+    private final ExecutorService ownedExecutor;
+    private final Object progressLock = new Object();
+    private long submittedCount; // guarded by progressLock, so flush() may be called from any thread
+    private long processedCount;
+    private volatile Throwable failure;
+    private boolean closed;
+
+    /**
+     * Creates a pipeline on its own worker executor, backed by virtual threads where the runtime supports them.
+     */
+    public PipelinedStreamingKFilter(final StreamingKFilter delegate)
+    {
+        this(delegate, newWorkerExecutor(), DEFAULT_QUEUE_CAPACITY, true);
+    }
+
+    /**
+     * Creates a pipeline on the given executor, which stays owned by the caller and has to keep one thread free for the worker until
+     * this filter is closed.
+     *
+     * @param queueCapacity the number of records that may wait for the worker before ingest blocks
+     */
+    public PipelinedStreamingKFilter(final StreamingKFilter delegate, final Executor executor, final int queueCapacity)
+    {
+        this(delegate, executor, queueCapacity, false);
+    }
+
+    private PipelinedStreamingKFilter(final StreamingKFilter delegate, final Executor executor, final int queueCapacity, final boolean ownsExecutor)
+    {
+        this.delegate = delegate;
+        this.ingestQueue = new ArrayBlockingQueue<>(queueCapacity);
+        this.ownedExecutor = ownsExecutor ? (ExecutorService) executor : null;
+        executor.execute(this::formClusters);
+    }
+
+    /**
+     * @throws IllegalStateException if the filter is closed, processing an earlier record failed or the calling thread was interrupted
+     */
+    @Override
+    public void processNewRecord(final InputRecord input)
+    {
+        throwIfFailed();
+
+        if (closed)
+        {
+            throw new IllegalStateException("Pipeline is closed");
+        }
+
+        synchronized (progressLock)
+        {
+            submittedCount++;
+        }
+
+        enqueue(input);
+    }
+
+    /**
+     * Returns the records published by the records processed so far, without waiting for the worker.
+     *
+     * @throws IllegalStateException if processing a record failed
+     */
+    @Override
+    public Collection<OutputRecord> returnPublishableRecords()
+    {
+        throwIfFailed();
+
+        if (publishedRecords.isEmpty())
+        {
+            return Collections.emptyList();
+        }
+
+        final List<OutputRecord> result = new ArrayList<>();
+
+        for (OutputRecord record = publishedRecords.poll(); record != null; record = publishedRecords.poll())
+        {
+            result.add(record);
+        }
+
+        return result;
+    }
+
+    /**
+     * Waits until every record submitted so far has been processed, so the next {@link #returnPublishableRecords()} returns what the
+     * synchronous filter would return at this point.
+     *
+     * @throws IllegalStateException if processing a record failed or the calling thread was interrupted
+     */
+    public void flush()
+    {
+        synchronized (progressLock)
+        {
+            while (processedCount < submittedCount && failure == null)
+            {
+                try
+                {
+                    progressLock.wait();
+                }
+                catch (final InterruptedException e)
+                {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while waiting for the pipeline", e);
+                }
+            }
+        }
+
+        throwIfFailed();
+    }
+
+    /**
+     * Stops the worker once every queued record is processed and shuts down the worker executor if it was created by this filter.
+     * Records published before that can still be returned.
+     */
+    @Override
+    public void close()
+    {
+        if (closed)
+        {
+            return;
+        }
+
+        closed = true;
+        enqueue(END_OF_STREAM);
+
+        if (ownedExecutor != null)
+        {
+            ownedExecutor.shutdown();
+        }
+    }
+
+    private void enqueue(final InputRecord record)
+    {
+        try
+        {
+            while (!ingestQueue.offer(record, 10, TimeUnit.MILLISECONDS))
+            {
+                throwIfFailed();
+            }
+        }
+        catch (final InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for space in the pipeline", e);
+        }
+    }
+
+    private void formClusters()
+    {
+        final List<InputRecord> batch = new ArrayList<>();
+
+        try
+        {
+            while (true)
+            {
+                batch.add(ingestQueue.take());
+                ingestQueue.drainTo(batch);
+
+                final boolean endOfStream = batch.get(batch.size() - 1) == END_OF_STREAM;
+                final int recordCount = endOfStream ? batch.size() - 1 : batch.size();
+
+                for (int i = 0; i < recordCount; i++)
+                {
+                    process(batch.get(i));
+                }
+
+                handOver();
+                markProcessed(recordCount);
+                batch.clear();
+
+                if (endOfStream)
+                {
+                    return;
+                }
+            }
+        }
+        catch (final InterruptedException e)
+        {
+            fail(e);
+        }
+    }
+
+    private void process(final InputRecord record)
+    {
+        if (failure != null)
+        {
+            return;
+        }
+
+        try
+        {
+            delegate.processNewRecord(record);
+        }
+        catch (final Throwable e)
+        {
+            fail(e);
+        }
+    }
+
+    private void handOver()
+    {
+        if (failure != null)
+        {
+            return;
+        }
+
+        try
+        {
+            publishedRecords.addAll(delegate.returnPublishableRecords());
+        }
+        catch (final Throwable e)
+        {
+            fail(e);
+        }
+    }
+
+    /**
+     * Records the failure, wakes every caller waiting in {@link #flush()} and lets the worker skip the remaining records,
+     * so neither stage can block on the other after a failure.
+     */
+    private void fail(final Throwable e)
+    {
+        synchronized (progressLock)
+        {
+            failure = e;
+            progressLock.notifyAll();
+        }
+    }
+
+    private void markProcessed(final long count)
+    {
+        synchronized (progressLock)
+        {
+            processedCount += count;
+            progressLock.notifyAll();
+        }
+    }
+
+    private void throwIfFailed()
+    {
+        if (failure != null)
+        {
+            throw new IllegalStateException("Failed to process a record", failure);
+        }
+    }
+
+    /**
+     * @return an executor starting a virtual thread per task on Java 21 and later, otherwise a pool of daemon threads
+     */
+    public static ExecutorService newWorkerExecutor()
+    {
+        try
+        {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        }
+        catch (final ReflectiveOperationException | RuntimeException e)
+        {
+            return Executors.newCachedThreadPool(new ThreadFactoryBuilder()
+                    .setNameFormat("fads-pipeline-%d")
+                    .setDaemon(true)
+                    .build());
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package algorithms.FADS.impl.spi;
+
+/**
+ * A swappable part of the FADS filter which is discovered through {@link java.util.ServiceLoader}.
+ */
+public interface FadsComponent
+{
+    /**
+     * @return the unique name this component is selected by
+     */
+    String getName();
+}
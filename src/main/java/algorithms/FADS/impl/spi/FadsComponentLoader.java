@@ -0,0 +1,52 @@
+package algorithms.FADS.impl.spi;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.ServiceLoader;
+
+/**
+ * Looks up {@link FadsComponent} implementations registered under {@code META-INF/services}.
+ * <p>
+ * Every lookup goes through a fresh {@link ServiceLoader}, so each call returns a new instance that is safe to hold state for a single filter.
+ */
+public final class FadsComponentLoader
+{
+    private FadsComponentLoader()
+    {
+    }
+
+    /**
+     * @param type the component interface
+     * @param name the name of the implementation
+     * @return a new instance of the implementation with the given name
+     * @throws IllegalArgumentException if no implementation is registered under that name
+     */
+    public static <T extends FadsComponent> T load(final Class<T> type, final String name)
+    {
+        for (final T component : ServiceLoader.load(type))
+        {
+            if (component.getName().equals(name))
+            {
+                return component;
+            }
+        }
+
+        throw new IllegalArgumentException("No " + type.getSimpleName() + " registered with name '" + name + "'");
+    }
+
+    /**
+     * @param type the component interface
+     * @return the names of all registered implementations, in registration order
+     */
+    public static <T extends FadsComponent> List<String> getNames(final Class<T> type)
+    {
+        final List<String> names = new ArrayList<>();
+
+        for (final T component : ServiceLoader.load(type))
+        {
+            names.add(component.getName());
+        }
+
+        return names;
+    }
+}
@@ -0,0 +1,40 @@
+package algorithms.FADS.impl.stores;
+
+import java.util.Collection;
+import java.util.Optional;
+
+import core.InputRecord;
+
+import algorithms.FADS.impl.entities.Cluster;
+import algorithms.FADS.impl.spi.FadsComponent;
+
+/**
+ * Holds the clusters which may be reused (Set_kc in FADS paper), in creation order.
+ */
+public interface ClusterStore extends FadsComponent
+{
+    void add(Cluster cluster);
+
+    void remove(Cluster cluster);
+
+    /**
+     * Drops every cluster whose age has reached the reuse constraint.
+     *
+     * @param currentTime     the time of the latest input record
+     * @param reuseConstraint the maximum age that a cluster may be reused
+     */
+    void removeExpired(int currentTime, int reuseConstraint);
+
+    /**
+     * @param record a record
+     * @return the earliest created cluster covering the record with the least info loss
+     */
+    Optional<Cluster> findLeastInfoLoss(InputRecord record);
+
+    int size();
+
+    /**
+     * @return a read-only view of the clusters in creation order
+     */
+    Collection<Cluster> getClusters();
+}
@@ -0,0 +1,87 @@
+package algorithms.FADS.impl.stores.impl;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Optional;
+
+import core.InputRecord;
+
+import algorithms.FADS.impl.entities.Cluster;
+import algorithms.FADS.impl.stores.ClusterStore;
+
+/**
+ * Clusters are created in time order, so expired ones are always at the head of the deque and can be dropped
+ * without scanning the whole set.
+ */
+public class DequeClusterStore implements ClusterStore
+{
+    public static final String NAME = "deque";
+
+    private final Deque<Cluster> clusters = new ArrayDeque<>();
+
+    @Override
+    public String getName()
+    {
+        return NAME;
+    }
+
+    @Override
+    public void add(final Cluster cluster)
+    {
+        clusters.addLast(cluster);
+    }
+
+    @Override
+    public void remove(final Cluster cluster)
+    {
+        clusters.remove(cluster);
+    }
+
+    @Override
+    public void removeExpired(final int currentTime, final int reuseConstraint)
+    {
+        while (!clusters.isEmpty() && clusters.peekFirst().getAge(currentTime) >= reuseConstraint)
+        {
+            clusters.pollFirst();
+        }
+    }
+
+    @Override
+    public Optional<Cluster> findLeastInfoLoss(final InputRecord record)
+    {
+        Cluster best = null;
+        double bestInfoLoss = Double.MAX_VALUE;
+
+        for (final Cluster cluster : clusters)
+        {
+            if (!cluster.covers(record))
+            {
+                continue;
+            }
+
+            final double infoLoss = cluster.getInfoLoss(record);
+
+            if (best == null || infoLoss < bestInfoLoss)
+            {
+                best = cluster;
+                bestInfoLoss = infoLoss;
+            }
+        }
+
+        return Optional.ofNullable(best);
+    }
+
+    @Override
+    public int size()
+    {
+        return clusters.size();
+    }
+
+    @Override
+    public Collection<Cluster> getClusters()
+    {
+        return Collections.unmodifiableCollection(clusters);
+    }
+}
@@ -0,0 +1,64 @@
+package algorithms.FADS.impl.stores.impl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+import core.InputRecord;
+
+import algorithms.FADS.impl.entities.Cluster;
+import algorithms.FADS.impl.stores.ClusterStore;
+
+public class ListClusterStore implements ClusterStore
+{
+    public static final String NAME = "list";
+
+    private final List<Cluster> clusters = new ArrayList<>();
+
+    @Override
+    public String getName()
+    {
+        return NAME;
+    }
+
+    @Override
+    public void add(final Cluster cluster)
+    {
+        clusters.add(cluster);
+    }
+
+    @Override
+    public void remove(final Cluster cluster)
+    {
+        clusters.remove(cluster);
+    }
+
+    @Override
+    public void removeExpired(final int currentTime, final int reuseConstraint)
+    {
+        clusters.removeIf(cluster -> cluster.getAge(currentTime) >= reuseConstraint);
+    }
+
+    @Override
+    public Optional<Cluster> findLeastInfoLoss(final InputRecord record)
+    {
+        return clusters.stream()
+                .filter(cluster -> cluster.covers(record))
+                .min(Comparator.comparing(cluster -> cluster.getInfoLoss(record)));
+    }
+
+    @Override
+    public int size()
+    {
+        return clusters.size();
+    }
+
+    @Override
+    public Collection<Cluster> getClusters()
+    {
+        return Collections.unmodifiableList(clusters);
+    }
+}
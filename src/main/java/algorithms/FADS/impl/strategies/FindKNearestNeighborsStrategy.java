@@ -1,13 +1,17 @@
 package algorithms.FADS.impl.strategies;
 
+import java.util.Collection;
 import java.util.List;
 
 import core.InputRecord;
 
+import algorithms.FADS.impl.buffers.SortedRecordsIndex;
+import algorithms.FADS.impl.spi.FadsComponent;
+
 /**
  * A strategy to find k nearest neighbors.
  */
-public interface FindKNearestNeighborsStrategy
+public interface FindKNearestNeighborsStrategy extends FadsComponent
 {
     /**
      * USing priority queue to get k - 1 closest items.
@@ -17,5 +21,29 @@ public interface FindKNearestNeighborsStrategy
      * @param recordsBuffer all records to pick from
      * @return a list of closest records
      */
-    List<InputRecord> find(int k, InputRecord record, List<InputRecord> recordsBuffer);
+    List<InputRecord> find(int k, InputRecord record, Collection<InputRecord> recordsBuffer);
+
+    /**
+     * Same as {@link #find(int, InputRecord, Collection)}, with the buffer also available sorted by value. Strategies which look for the
+     * closest records by value can walk the index instead of the whole buffer, as long as they return the same records in the same order.
+     *
+     * @param k             the number of closest records that should be found
+     * @param record        a record
+     * @param recordsBuffer all records to pick from
+     * @param sortedRecords the same records sorted by value
+     * @return a list of closest records
+     */
+    default List<InputRecord> find(int k, InputRecord record, Collection<InputRecord> recordsBuffer, SortedRecordsIndex sortedRecords)
+    {
+        return find(k, record, recordsBuffer);
+    }
+
+    /**
+     * @return whether the filter should keep a {@link SortedRecordsIndex} of its buffer for this strategy, which costs memory per
+     * buffered record, so only strategies overriding the index-based {@code find} should return true
+     */
+    default boolean usesSortedRecords()
+    {
+        return false;
+    }
 }
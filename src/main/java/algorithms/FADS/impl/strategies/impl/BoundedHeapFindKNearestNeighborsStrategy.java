@@ -0,0 +1,99 @@
+package algorithms.FADS.impl.strategies.impl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Queue;
+
+import core.InputRecord;
+
+import algorithms.FADS.impl.buffers.SortedRecordsIndex;
+import algorithms.FADS.impl.strategies.FindKNearestNeighborsStrategy;
+
+/**
+ * Keeps only the k - 1 closest records seen so far in a max-heap, so the result is exactly k records and the search
+ * costs O(n log k) instead of ordering the whole buffer. Given a {@link SortedRecordsIndex} it walks outwards from the record
+ * instead, which costs O(log n + k).
+ * <p>
+ * The closest records come first, the earliest first at the same distance, followed by the record itself.
+ */
+public class BoundedHeapFindKNearestNeighborsStrategy implements FindKNearestNeighborsStrategy
+{
+    public static final String NAME = "bounded-heap";
+
+    @Override
+    public String getName()
+    {
+        return NAME;
+    }
+
+    @Override
+    public List<InputRecord> find(final int k, final InputRecord baseRecord, final Collection<InputRecord> recordsBuffer)
+    {
+        if (recordsBuffer.size() < k - 1)
+        {
+            return Collections.emptyList();
+        }
+
+        final List<InputRecord> result = new ArrayList<>(k);
+        result.addAll(createFarthestFirstQueue(k - 1, baseRecord, recordsBuffer));
+        result.sort(getClosestFirstComparator(baseRecord));
+        result.add(baseRecord);
+        return result;
+    }
+
+    @Override
+    public boolean usesSortedRecords()
+    {
+        return true;
+    }
+
+    @Override
+    public List<InputRecord> find(final int k, final InputRecord baseRecord, final Collection<InputRecord> recordsBuffer,
+                                  final SortedRecordsIndex sortedRecords)
+    {
+        if (recordsBuffer.size() < k - 1)
+        {
+            return Collections.emptyList();
+        }
+
+        final List<InputRecord> result = sortedRecords.findClosest(k - 1, baseRecord);
+        result.add(baseRecord);
+        return result;
+    }
+
+    private Queue<InputRecord> createFarthestFirstQueue(final int size, final InputRecord baseRecord, final Collection<InputRecord> recordsBuffer)
+    {
+        final Comparator<InputRecord> closestFirst = getClosestFirstComparator(baseRecord);
+        final Queue<InputRecord> farthestFirst = new PriorityQueue<>(size + 1, closestFirst.reversed());
+
+        if (size == 0)
+        {
+            return farthestFirst;
+        }
+
+        for (final InputRecord record : recordsBuffer)
+        {
+            if (farthestFirst.size() < size)
+            {
+                farthestFirst.add(record);
+            }
+            else if (closestFirst.compare(record, farthestFirst.peek()) < 0)
+            {
+                farthestFirst.poll();
+                farthestFirst.add(record);
+            }
+        }
+
+        return farthestFirst;
+    }
+
+    private Comparator<InputRecord> getClosestFirstComparator(final InputRecord baseRecord)
+    {
+        return Comparator.<InputRecord>comparingDouble(record -> Math.abs(record.getRawValue() - baseRecord.getRawValue()))
+                .thenComparingInt(InputRecord::getTime);
+    }
+}
@@ -1,6 +1,7 @@
 package algorithms.FADS.impl.strategies.impl;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
@@ -13,8 +14,16 @@ import algorithms.FADS.impl.strategies.FindKNearestNeighborsStrategy;
 
 public class DefaultFindKNearestNeighborsStrategy implements FindKNearestNeighborsStrategy
 {
+    public static final String NAME = "default";
+
+    @Override
+    public String getName()
+    {
+        return NAME;
+    }
+
     @Override
-    public List<InputRecord> find(final int k, final InputRecord baseRecord, final List<InputRecord> recordsBuffer)
+    public List<InputRecord> find(final int k, final InputRecord baseRecord, final Collection<InputRecord> recordsBuffer)
     {
         if (recordsBuffer.size() < k - 1)
         {
@@ -26,7 +35,7 @@ public class DefaultFindKNearestNeighborsStrategy implements FindKNearestNeighbo
         return result;
     }
 
-    private Queue<InputRecord> createPrioritizedQueue(final int k, final InputRecord baseRecord, final List<InputRecord> recordsBuffer)
+    private Queue<InputRecord> createPrioritizedQueue(final int k, final InputRecord baseRecord, final Collection<InputRecord> recordsBuffer)
     {
         final Queue<InputRecord> priorityQueue = new PriorityQueue<>(k, getPriorityQueueComparator(baseRecord));
         priorityQueue.addAll(recordsBuffer);
@@ -0,0 +1,289 @@
+package algorithms.FADS.impl.tuning;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import core.InputRecord;
+import core.OutputRecord;
+import core.StreamingKFilter;
+import algorithms.FADS.impl.FadsStreamingKFilter;
+import algorithms.FADS.impl.buffers.RecordsBuffer;
+import algorithms.FADS.impl.spi.FadsComponentLoader;
+import algorithms.FADS.impl.stores.ClusterStore;
+import algorithms.FADS.impl.strategies.FindKNearestNeighborsStrategy;
+
+import static algorithms.FADS.impl.ConfigurationManager.DELAY_CONSTRAINT;
+
+/**
+ * Runs the stream through the components selected on the given builder while it copies the first records as a calibration sample.
+ * Once the sample is complete every registered combination of components is run over it in the background, and the state of the
+ * running filter is handed over to the fastest combination that meets the distortion target at the next record boundary.
+ * <p>
+ * Every combination is run {@value #WARM_UP_ROUNDS} times before it is measured, then {@value #MEASURED_ROUNDS} times in rotating order,
+ * and compared by its median time, so the selection does not depend on which combination the JIT compiled first.
+ * If no combination meets the target the one with the least distortion is used. Every other setting of the builder applies to all combinations.
+ * <p>
+ * If calibration fails, the next {@link #processNewRecord} and every one after it throws with the cause, rather than carrying on with
+ * the fallback components as if calibration had not finished yet.
+ */
+public class AutoTuningStreamingKFilter implements StreamingKFilter
+{
+    private static final int WARM_UP_ROUNDS = 2;
+    private static final int MEASURED_ROUNDS = 5;
+
+    private final FadsStreamingKFilter.Builder fallback;
+    private final int sampleSize;
+    private final double maxDistortion;
+    private final Executor calibrationExecutor;
+    private final boolean ownsCalibrationExecutor;
+    private List<InputRecord> sample;
+    private CompletableFuture<List<CalibrationResult>> calibration;
+    private List<CalibrationResult> calibrationResults = Collections.emptyList();
+    private FadsStreamingKFilter delegate;
+
+    /**
+     * Calibrates on a background daemon thread.
+     */
+    public AutoTuningStreamingKFilter(final FadsStreamingKFilter.Builder fallback, final int sampleSize, final double maxDistortion)
+    {
+        this(fallback, sampleSize, maxDistortion, newCalibrationExecutor(), true);
+    }
+
+    /**
+     * @param calibrationExecutor the executor to calibrate on, a direct executor calibrates within the call that completes the sample
+     * @throws IllegalArgumentException if the sample is too small for any record to be published from it
+     */
+    public AutoTuningStreamingKFilter(final FadsStreamingKFilter.Builder fallback, final int sampleSize, final double maxDistortion,
+                                      final Executor calibrationExecutor)
+    {
+        this(fallback, sampleSize, maxDistortion, calibrationExecutor, false);
+    }
+
+    private AutoTuningStreamingKFilter(final FadsStreamingKFilter.Builder fallback, final int sampleSize, final double maxDistortion,
+                                       final Executor calibrationExecutor, final boolean ownsCalibrationExecutor)
+    {
+        if (sampleSize < DELAY_CONSTRAINT)
+        {
+            throw new IllegalArgumentException("Sample size must be at least the delay constraint of " + DELAY_CONSTRAINT
+                    + " for any record to be published during calibration: " + sampleSize);
+        }
+
+        this.fallback = fallback.copy();
+        this.sampleSize = sampleSize;
+        this.maxDistortion = maxDistortion;
+        this.calibrationExecutor = calibrationExecutor;
+        this.ownsCalibrationExecutor = ownsCalibrationExecutor;
+        this.sample = new ArrayList<>(sampleSize);
+        this.delegate = this.fallback.build();
+    }
+
+    /**
+     * @throws IllegalStateException if calibration failed, typically because a registered component threw on the sample
+     */
+    @Override
+    public void processNewRecord(final InputRecord input)
+    {
+        switchIfCalibrated();
+        delegate.processNewRecord(input);
+
+        if (sample == null)
+        {
+            return;
+        }
+
+        sample.add(input);
+
+        if (sample.size() >= sampleSize)
+        {
+            final List<InputRecord> completeSample = sample;
+            sample = null;
+            calibration = CompletableFuture.supplyAsync(() -> calibrate(completeSample), calibrationExecutor);
+
+            if (ownsCalibrationExecutor)
+            {
+                ((ExecutorService) calibrationExecutor).shutdown();
+            }
+
+            switchIfCalibrated();
+        }
+    }
+
+    @Override
+    public Collection<OutputRecord> returnPublishableRecords()
+    {
+        return delegate.returnPublishableRecords();
+    }
+
+    /**
+     * @return the measurements taken during calibration, empty until the filter has switched to the selected combination
+     */
+    public List<CalibrationResult> getCalibrationResults()
+    {
+        return calibrationResults;
+    }
+
+    private void switchIfCalibrated()
+    {
+        if (calibration == null || !calibration.isDone())
+        {
+            return;
+        }
+
+        try
+        {
+            calibrationResults = calibration.join();
+        }
+        catch (final CompletionException e)
+        {
+            throw new IllegalStateException("Failed to calibrate the components", e.getCause());
+        }
+
+        calibration = null;
+
+        final FadsStreamingKFilter successor = selectBuilder().build();
+        delegate.transferStateTo(successor);
+        delegate = successor;
+    }
+
+    private List<CalibrationResult> calibrate(final List<InputRecord> sample)
+    {
+        final List<FadsStreamingKFilter.Builder> combinations = getCombinations();
+        final long[][] elapsedNanos = new long[combinations.size()][MEASURED_ROUNDS];
+        final double[] distortions = new double[combinations.size()];
+
+        for (int round = 0; round < WARM_UP_ROUNDS; round++)
+        {
+            for (final FadsStreamingKFilter.Builder combination : combinations)
+            {
+                run(combination, sample);
+            }
+        }
+
+        for (int round = 0; round < MEASURED_ROUNDS; round++)
+        {
+            for (int offset = 0; offset < combinations.size(); offset++)
+            {
+                final int index = (round + offset) % combinations.size();
+                final long start = System.nanoTime();
+                final Collection<OutputRecord> published = run(combinations.get(index), sample);
+                elapsedNanos[index][round] = System.nanoTime() - start;
+                distortions[index] = measureDistortion(sample, published);
+            }
+        }
+
+        final List<CalibrationResult> results = new ArrayList<>(combinations.size());
+
+        for (int index = 0; index < combinations.size(); index++)
+        {
+            final FadsStreamingKFilter.Builder combination = combinations.get(index);
+            Arrays.sort(elapsedNanos[index]);
+            results.add(new CalibrationResult(combination.getRecordsBufferName(), combination.getClusterStoreName(),
+                    combination.getFindKNearestNeighborsStrategyName(), elapsedNanos[index][MEASURED_ROUNDS / 2], distortions[index]));
+        }
+
+        return results;
+    }
+
+    private List<FadsStreamingKFilter.Builder> getCombinations()
+    {
+        final List<FadsStreamingKFilter.Builder> combinations = new ArrayList<>();
+
+        for (final String recordsBufferName : FadsComponentLoader.getNames(RecordsBuffer.class))
+        {
+            for (final String clusterStoreName : FadsComponentLoader.getNames(ClusterStore.class))
+            {
+                for (final String strategyName : FadsComponentLoader.getNames(FindKNearestNeighborsStrategy.class))
+                {
+                    combinations.add(fallback.copy()
+                            .withRecordsBuffer(recordsBufferName)
+                            .withClusterStore(clusterStoreName)
+                            .withFindKNearestNeighborsStrategy(strategyName));
+                }
+            }
+        }
+
+        return combinations;
+    }
+
+    private static Collection<OutputRecord> run(final FadsStreamingKFilter.Builder combination, final List<InputRecord> sample)
+    {
+        final StreamingKFilter candidate = combination.build();
+
+        for (final InputRecord record : sample)
+        {
+            candidate.processNewRecord(record);
+        }
+
+        return candidate.returnPublishableRecords();
+    }
+
+    private static double measureDistortion(final List<InputRecord> sample, final Collection<OutputRecord> published)
+    {
+        if (published.isEmpty())
+        {
+            return Double.NaN;
+        }
+
+        double min = Double.MAX_VALUE;
+        double max = -Double.MAX_VALUE;
+
+        for (final InputRecord record : sample)
+        {
+            min = Math.min(min, record.getRawValue());
+            max = Math.max(max, record.getRawValue());
+        }
+
+        double squaredErrorSum = 0;
+
+        for (final OutputRecord record : published)
+        {
+            final double error = record.getAnonymisedValue() - record.getRawValue();
+            squaredErrorSum += error * error;
+        }
+
+        final double rmse = Math.sqrt(squaredErrorSum / published.size());
+        return max > min ? rmse / (max - min) : rmse;
+    }
+
+    private FadsStreamingKFilter.Builder selectBuilder()
+    {
+        final Optional<CalibrationResult> fastest = calibrationResults.stream()
+                .filter(result -> result.meets(maxDistortion))
+                .min(Comparator.comparingLong(CalibrationResult::getElapsedNanos));
+
+        final Optional<CalibrationResult> selected = fastest.isPresent()
+                ? fastest
+                : calibrationResults.stream()
+                        .filter(result -> !Double.isNaN(result.getDistortion()))
+                        .min(Comparator.comparingDouble(CalibrationResult::getDistortion));
+
+        if (!selected.isPresent())
+        {
+            return fallback;
+        }
+
+        return fallback.copy()
+                .withRecordsBuffer(selected.get().getRecordsBufferName())
+                .withClusterStore(selected.get().getClusterStoreName())
+                .withFindKNearestNeighborsStrategy(selected.get().getFindKNearestNeighborsStrategyName());
+    }
+
+    private static ExecutorService newCalibrationExecutor()
+    {
+        return Executors.newSingleThreadExecutor(new ThreadFactoryBuilder()
+                .setNameFormat("fads-calibration-%d")
+                .setDaemon(true)
+                .build());
+    }
+}
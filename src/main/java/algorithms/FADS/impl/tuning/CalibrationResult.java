@@ -0,0 +1,67 @@
+package algorithms.FADS.impl.tuning;
+
+/**
+ * The measurements of a single combination of components over the calibration sample.
+ */
+public final class CalibrationResult
+{
+    private final String recordsBufferName;
+    private final String clusterStoreName;
+    private final String findKNearestNeighborsStrategyName;
+    /** The median time of the measured runs over the sample */
+    private final long elapsedNanos;
+    /** The RMSE distortion normalised by the range of the sample, or NaN if nothing was published */
+    private final double distortion;
+
+    CalibrationResult(final String recordsBufferName, final String clusterStoreName, final String findKNearestNeighborsStrategyName,
+                      final long elapsedNanos, final double distortion)
+    {
+        this.recordsBufferName = recordsBufferName;
+        this.clusterStoreName = clusterStoreName;
+        this.findKNearestNeighborsStrategyName = findKNearestNeighborsStrategyName;
+        this.elapsedNanos = elapsedNanos;
+        this.distortion = distortion;
+    }
+
+    public String getRecordsBufferName()
+    {
+        return recordsBufferName;
+    }
+
+    public String getClusterStoreName()
+    {
+        return clusterStoreName;
+    }
+
+    public String getFindKNearestNeighborsStrategyName()
+    {
+        return findKNearestNeighborsStrategyName;
+    }
+
+    public long getElapsedNanos()
+    {
+        return elapsedNanos;
+    }
+
+    public double getDistortion()
+    {
+        return distortion;
+    }
+
+    public boolean meets(final double maxDistortion)
+    {
+        return distortion <= maxDistortion;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "CalibrationResult{" +
+                "recordsBuffer=" + recordsBufferName +
+                ", clusterStore=" + clusterStoreName +
+                ", findKNearestNeighborsStrategy=" + findKNearestNeighborsStrategyName +
+                ", elapsedNanos=" + elapsedNanos +
+                ", distortion=" + distortion +
+                '}';
+    }
+}
@@ -0,0 +1,83 @@
+package core.trace;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Collection;
+
+import com.google.common.hash.Hasher;
+import core.InputRecord;
+import core.OutputRecord;
+import core.StreamingKFilter;
+
+/**
+ * Wraps a {@link StreamingKFilter} and writes every record it is given and every request to publish to a binary trace,
+ * in the order they happen, so the same call pattern can be replayed later with {@link TraceReplayer}.
+ * <p>
+ * The trace is only complete once this filter is closed, which also writes a hash of every record the filter returned so a replay
+ * can tell whether its output is identical.
+ */
+public class RecordingStreamingKFilter implements StreamingKFilter, Closeable {
+
+    private final StreamingKFilter delegate;
+    private final DataOutputStream out;
+    private final Hasher outputHasher = TraceFormat.newOutputHasher();
+    private int previousTime;
+
+    public RecordingStreamingKFilter(StreamingKFilter delegate, OutputStream out) {
+        this.delegate = delegate;
+        this.out = new DataOutputStream(new BufferedOutputStream(out));
+
+        try {
+            this.out.writeInt(TraceFormat.MAGIC);
+            this.out.writeByte(TraceFormat.VERSION);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write trace header", e);
+        }
+    }
+
+    @Override
+    public void processNewRecord(InputRecord input) {
+        try {
+            out.writeByte(TraceFormat.RECORD);
+            TraceFormat.writeZigZag(out, input.getTime() - previousTime);
+            out.writeDouble(input.getRawValue());
+            previousTime = input.getTime();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write record to trace", e);
+        }
+
+        delegate.processNewRecord(input);
+    }
+
+    @Override
+    public Collection<OutputRecord> returnPublishableRecords() {
+        Collection<OutputRecord> publishedRecords = delegate.returnPublishableRecords();
+
+        for (OutputRecord record : publishedRecords) {
+            TraceFormat.putOutputRecord(outputHasher, record);
+        }
+
+        try {
+            out.writeByte(TraceFormat.PUBLISH);
+            TraceFormat.writeVarInt(out, publishedRecords.size());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write publish request to trace", e);
+        }
+
+        return publishedRecords;
+    }
+
+    /**
+     * Marks the end of the trace with the hash of the returned records and closes the underlying stream.
+     */
+    @Override
+    public void close() throws IOException {
+        out.writeByte(TraceFormat.END);
+        out.write(outputHasher.hash().asBytes());
+        out.close();
+    }
+}
@@ -0,0 +1,107 @@
+package core.trace;
+
+/**
+ * The measurements of replaying a {@link Trace} against a filter.
+ */
+public final class ReplayReport {
+
+    private final int recordCount;
+    private final int publishCount;
+    private final long outputCount;
+    private final long capturedOutputCount;
+    private final long elapsedNanos;
+    private final long medianLatencyNanos;
+    private final long p99LatencyNanos;
+    private final long maxLatencyNanos;
+    private final String checksum;
+    private final String capturedChecksum;
+
+    ReplayReport(int recordCount, int publishCount, long outputCount, long capturedOutputCount, long elapsedNanos,
+                 long medianLatencyNanos, long p99LatencyNanos, long maxLatencyNanos, String checksum, String capturedChecksum) {
+        this.recordCount = recordCount;
+        this.publishCount = publishCount;
+        this.outputCount = outputCount;
+        this.capturedOutputCount = capturedOutputCount;
+        this.elapsedNanos = elapsedNanos;
+        this.medianLatencyNanos = medianLatencyNanos;
+        this.p99LatencyNanos = p99LatencyNanos;
+        this.maxLatencyNanos = maxLatencyNanos;
+        this.checksum = checksum;
+        this.capturedChecksum = capturedChecksum;
+    }
+
+    public int getRecordCount() {
+        return recordCount;
+    }
+
+    public int getPublishCount() {
+        return publishCount;
+    }
+
+    /** The number of records the filter returned during the replay */
+    public long getOutputCount() {
+        return outputCount;
+    }
+
+    /** The number of records the filter returned when the trace was captured */
+    public long getCapturedOutputCount() {
+        return capturedOutputCount;
+    }
+
+    /** The time spent inside the filter, summed over all calls */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public double getRecordsPerSecond() {
+        return elapsedNanos == 0 ? Double.POSITIVE_INFINITY : recordCount * 1_000_000_000.0 / elapsedNanos;
+    }
+
+    /** The median time of a single call to the filter */
+    public long getMedianLatencyNanos() {
+        return medianLatencyNanos;
+    }
+
+    /** The 99th percentile time of a single call to the filter */
+    public long getP99LatencyNanos() {
+        return p99LatencyNanos;
+    }
+
+    public long getMaxLatencyNanos() {
+        return maxLatencyNanos;
+    }
+
+    /** A hash of every returned record in order, equal between two replays only if their output is identical */
+    public String getChecksum() {
+        return checksum;
+    }
+
+    /** The checksum of the output returned when the trace was captured */
+    public String getCapturedChecksum() {
+        return capturedChecksum;
+    }
+
+    /**
+     * @return whether the filter returned exactly the records it returned when the trace was captured, in the same order
+     */
+    public boolean matchesCapture() {
+        return checksum.equals(capturedChecksum);
+    }
+
+    @Override
+    public String toString() {
+        return "ReplayReport{" +
+                "recordCount=" + recordCount +
+                ", publishCount=" + publishCount +
+                ", outputCount=" + outputCount +
+                ", capturedOutputCount=" + capturedOutputCount +
+                ", elapsedNanos=" + elapsedNanos +
+                ", recordsPerSecond=" + String.format("%.0f", getRecordsPerSecond()) +
+                ", medianLatencyNanos=" + medianLatencyNanos +
+                ", p99LatencyNanos=" + p99LatencyNanos +
+                ", maxLatencyNanos=" + maxLatencyNanos +
+                ", checksum=" + checksum +
+                ", capturedChecksum=" + capturedChecksum +
+                '}';
+    }
+}
@@ -0,0 +1,117 @@
+package core.trace;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+import com.google.common.hash.HashCode;
+
+import core.InputRecord;
+
+/**
+ * A trace fully decoded into memory, so replaying it does not include any I/O or decoding.
+ */
+public final class Trace {
+
+    private final byte[] events;
+    private final InputRecord[] records;
+    private final int[] capturedPublishCounts;
+    private final String capturedChecksum;
+
+    private Trace(byte[] events, InputRecord[] records, int[] capturedPublishCounts, String capturedChecksum) {
+        this.events = events;
+        this.records = records;
+        this.capturedPublishCounts = capturedPublishCounts;
+        this.capturedChecksum = capturedChecksum;
+    }
+
+    /**
+     * Reads a complete trace, leaving the stream open.
+     *
+     * @throws IOException if the stream is not a trace of a supported version or ends before the end marker
+     */
+    public static Trace read(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(new BufferedInputStream(in));
+
+        if (data.readInt() != TraceFormat.MAGIC) {
+            throw new IOException("Not a trace: bad magic number");
+        }
+
+        byte version = data.readByte();
+        if (version != TraceFormat.VERSION) {
+            throw new IOException("Unsupported trace version " + version);
+        }
+
+        byte[] events = new byte[1024];
+        InputRecord[] records = new InputRecord[1024];
+        int[] publishCounts = new int[64];
+        int eventCount = 0;
+        int recordCount = 0;
+        int publishCount = 0;
+        int time = 0;
+
+        for (byte event = data.readByte(); event != TraceFormat.END; event = data.readByte()) {
+            if (event == TraceFormat.RECORD) {
+                time += TraceFormat.readZigZag(data);
+                if (recordCount == records.length) {
+                    records = Arrays.copyOf(records, recordCount * 2);
+                }
+                records[recordCount++] = new InputRecord(time, data.readDouble());
+            } else if (event == TraceFormat.PUBLISH) {
+                if (publishCount == publishCounts.length) {
+                    publishCounts = Arrays.copyOf(publishCounts, publishCount * 2);
+                }
+                publishCounts[publishCount++] = TraceFormat.readVarInt(data);
+            } else {
+                throw new IOException("Unknown trace event " + event);
+            }
+
+            if (eventCount == events.length) {
+                events = Arrays.copyOf(events, eventCount * 2);
+            }
+            events[eventCount++] = event;
+        }
+
+        byte[] outputHash = new byte[TraceFormat.OUTPUT_HASH_BYTES];
+        data.readFully(outputHash);
+
+        return new Trace(Arrays.copyOf(events, eventCount), Arrays.copyOf(records, recordCount), Arrays.copyOf(publishCounts, publishCount),
+                HashCode.fromBytes(outputHash).toString());
+    }
+
+    public int getRecordCount() {
+        return records.length;
+    }
+
+    public int getPublishCount() {
+        return capturedPublishCounts.length;
+    }
+
+    /**
+     * @return the total number of records the filter returned when the trace was captured
+     */
+    public long getCapturedOutputCount() {
+        long total = 0;
+        for (int count : capturedPublishCounts) {
+            total += count;
+        }
+        return total;
+    }
+
+    /**
+     * @return the checksum of every record the filter returned when the trace was captured, comparable to {@link ReplayReport#getChecksum()}
+     */
+    public String getCapturedChecksum() {
+        return capturedChecksum;
+    }
+
+    byte[] getEvents() {
+        return events;
+    }
+
+    InputRecord[] getRecords() {
+        return records;
+    }
+}
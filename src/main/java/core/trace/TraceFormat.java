@@ -0,0 +1,74 @@
+package core.trace;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.EOFException;
+import java.io.IOException;
+
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import core.OutputRecord;
+
+/**
+ * The binary trace format written by {@link RecordingStreamingKFilter} and read by {@link Trace}.
+ * <p>
+ * A trace starts with the magic number {@code KTRC} and a version byte, followed by events, each a tag byte and its payload:
+ * <ul>
+ *     <li>{@link #RECORD}: the record time as a zigzag varint delta from the previous record time, then the raw value as 8 bytes</li>
+ *     <li>{@link #PUBLISH}: the number of records the filter returned at capture time as a varint</li>
+ *     <li>{@link #END}: the {@value #OUTPUT_HASH_BYTES} byte murmur3 hash of every record the filter returned at capture time, in order</li>
+ * </ul>
+ */
+final class TraceFormat {
+
+    static final int MAGIC = 0x4B545243; // "KTRC"
+    static final byte VERSION = 2;
+    static final int OUTPUT_HASH_BYTES = 16;
+
+    static final byte END = 0;
+    static final byte RECORD = 1;
+    static final byte PUBLISH = 2;
+
+    private TraceFormat() {
+    }
+
+    static Hasher newOutputHasher() {
+        return Hashing.murmur3_128().newHasher();
+    }
+
+    static void putOutputRecord(Hasher hasher, OutputRecord record) {
+        hasher.putInt(record.getInputTime())
+                .putInt(record.getOutputTime())
+                .putDouble(record.getRawValue())
+                .putDouble(record.getAnonymisedValue());
+    }
+
+    static void writeVarInt(DataOutput out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    static int readVarInt(DataInput in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            byte b = in.readByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new EOFException("Malformed varint in trace");
+    }
+
+    static void writeZigZag(DataOutput out, int value) throws IOException {
+        writeVarInt(out, (value << 1) ^ (value >> 31));
+    }
+
+    static int readZigZag(DataInput in) throws IOException {
+        int value = readVarInt(in);
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
@@ -0,0 +1,71 @@
+package core.trace;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+import com.google.common.hash.Hasher;
+import core.InputRecord;
+import core.OutputRecord;
+import core.StreamingKFilter;
+
+/**
+ * Feeds a {@link Trace} to a filter as fast as possible, repeating the captured order of records and requests to publish,
+ * and reports throughput, per-call latency and a checksum of the output.
+ * <p>
+ * Only the time spent inside the filter is measured; hashing the output happens outside of it.
+ */
+public final class TraceReplayer {
+
+    private TraceReplayer() {
+    }
+
+    public static ReplayReport replay(Trace trace, StreamingKFilter streamingKFilter) {
+        byte[] events = trace.getEvents();
+        InputRecord[] records = trace.getRecords();
+        long[] latencies = new long[events.length];
+        Hasher hasher = TraceFormat.newOutputHasher();
+        long outputCount = 0;
+        long elapsedNanos = 0;
+        int recordIndex = 0;
+
+        for (int i = 0; i < events.length; i++) {
+            long start = System.nanoTime();
+
+            if (events[i] == TraceFormat.RECORD) {
+                streamingKFilter.processNewRecord(records[recordIndex++]);
+                latencies[i] = System.nanoTime() - start;
+            } else {
+                Collection<OutputRecord> publishedRecords = streamingKFilter.returnPublishableRecords();
+                latencies[i] = System.nanoTime() - start;
+
+                for (OutputRecord record : publishedRecords) {
+                    TraceFormat.putOutputRecord(hasher, record);
+                }
+                outputCount += publishedRecords.size();
+            }
+
+            elapsedNanos += latencies[i];
+        }
+
+        Arrays.sort(latencies);
+
+        return new ReplayReport(
+                trace.getRecordCount(),
+                trace.getPublishCount(),
+                outputCount,
+                trace.getCapturedOutputCount(),
+                elapsedNanos,
+                percentile(latencies, 0.5),
+                percentile(latencies, 0.99),
+                latencies.length == 0 ? 0 : latencies[latencies.length - 1],
+                hasher.hash().toString(),
+                trace.getCapturedChecksum());
+    }
+
+    private static long percentile(long[] sortedLatencies, double percentile) {
+        if (sortedLatencies.length == 0) {
+            return 0;
+        }
+        return sortedLatencies[(int) Math.min(sortedLatencies.length - 1, Math.ceil(percentile * sortedLatencies.length) - 1)];
+    }
+}
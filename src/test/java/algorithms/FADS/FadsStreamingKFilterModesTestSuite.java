@@ -0,0 +1,455 @@
+package algorithms.FADS;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import com.google.common.util.concurrent.MoreExecutors;
+import algorithms.FADS.impl.ConfigurationManager;
+import algorithms.FADS.impl.FadsStreamingKFilter;
+import algorithms.FADS.impl.MemoryFootprint;
+import algorithms.FADS.impl.batch.ReusableClusterSweep;
+import algorithms.FADS.impl.buffers.RecordsBuffer;
+import algorithms.FADS.impl.buffers.impl.ListRecordsBuffer;
+import algorithms.FADS.impl.entities.Cluster;
+import algorithms.FADS.impl.eviction.ClusterEvictionPolicy;
+import algorithms.FADS.impl.eviction.impl.LowestReuseBenefitClusterEvictionPolicy;
+import algorithms.FADS.impl.eviction.impl.OldestFirstClusterEvictionPolicy;
+import algorithms.FADS.impl.execution.PipelinedStreamingKFilter;
+import algorithms.FADS.impl.spi.FadsComponentLoader;
+import algorithms.FADS.impl.stores.ClusterStore;
+import algorithms.FADS.impl.stores.impl.ListClusterStore;
+import algorithms.FADS.impl.strategies.FindKNearestNeighborsStrategy;
+import algorithms.FADS.impl.strategies.impl.BoundedHeapFindKNearestNeighborsStrategy;
+import algorithms.FADS.impl.tuning.AutoTuningStreamingKFilter;
+import core.InputRecord;
+import core.OutputRecord;
+import core.StreamingKFilter;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.hamcrest.collection.IsEmptyCollection.empty;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNot.not;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.params.provider.Arguments.arguments;
+
+/**
+ * Verifies the configurable modes of {@link FadsStreamingKFilter} against the same K-Anonymity requirement as {@link StreamingKFilterTestSuite}.
+ */
+@DisplayName("FADS Modes Test Suite")
+public class FadsStreamingKFilterModesTestSuite {
+
+    private static final int K = StreamingKFilterTestSuite.K;
+    private static final int NUMBER_OF_RECORDS = 10_000;
+
+    @ParameterizedTest(name = "Running with buffer \"{0}\", cluster store \"{1}\" and strategy \"{2}\"")
+    @MethodSource("componentCombinationProvider")
+    @DisplayName("Every registered combination of components respects K-anonymity")
+    void givenComponentCombination_whenRecordsProvided_thenWeRespectKAnonymity(String recordsBuffer, String clusterStore, String strategy) {
+        StreamingKFilter streamingKFilter = FadsStreamingKFilter.builder()
+                .withRecordsBuffer(recordsBuffer)
+                .withClusterStore(clusterStore)
+                .withFindKNearestNeighborsStrategy(strategy)
+                .build();
+
+        Collection<OutputRecord> publishableRecords = run(streamingKFilter, generateRecords(NUMBER_OF_RECORDS));
+
+        assertThat(publishableRecords, is(not(empty())));
+        failBadBuckets(publishableRecords);
+    }
+
+    @Test
+    @DisplayName("Default builder publishes the same records as the default filter")
+    void givenDefaultBuilder_whenRecordsProvided_thenOutputMatchesDefaultFilter() {
+        List<InputRecord> records = generateRecords(NUMBER_OF_RECORDS);
+
+        assertThat(describe(run(FadsStreamingKFilter.builder().build(), records)),
+                is(describe(run(new FadsStreamingKFilter(), records))));
+    }
+
+    @Test
+    @DisplayName("Auto-tuning filter calibrates every combination and respects K-anonymity")
+    void givenAutoTuningFilter_whenSampleComplete_thenWeRespectKAnonymity() {
+        AutoTuningStreamingKFilter streamingKFilter = new AutoTuningStreamingKFilter(FadsStreamingKFilter.builder(), 3_000, 0.1, MoreExecutors.directExecutor());
+
+        Collection<OutputRecord> publishableRecords = run(streamingKFilter, generateRecords(NUMBER_OF_RECORDS));
+
+        int combinations = FadsComponentLoader.getNames(RecordsBuffer.class).size()
+                * FadsComponentLoader.getNames(ClusterStore.class).size()
+                * FadsComponentLoader.getNames(FindKNearestNeighborsStrategy.class).size();
+
+        assertThat(streamingKFilter.getCalibrationResults(), hasSize(combinations));
+        publishableRecords.forEach(outputRecord ->
+                assertThat("Records must be published within the delay constraint, during calibration as well.",
+                        outputRecord.getOutputTime() - outputRecord.getInputTime(), lessThan(ConfigurationManager.DELAY_CONSTRAINT)));
+        assertThat(publishableRecords, is(not(empty())));
+        failBadBuckets(publishableRecords);
+    }
+
+    @Test
+    @DisplayName("Pipelined filter publishes the same sequence of records as the synchronous filter")
+    void givenPipelinedFilter_whenRecordsProvided_thenOutputMatchesSynchronousFilter() {
+        List<InputRecord> records = generateRecords(NUMBER_OF_RECORDS);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        try (PipelinedStreamingKFilter pipelinedFilter = FadsStreamingKFilter.builder().buildPipelined(executor, 16)) {
+            Collection<OutputRecord> publishableRecords = run(pipelinedFilter, records);
+            pipelinedFilter.flush();
+            publishableRecords.addAll(pipelinedFilter.returnPublishableRecords());
+
+            assertThat(describe(publishableRecords), is(describe(run(FadsStreamingKFilter.builder().build(), records))));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Pipelined filter reports an error thrown by the filter instead of waiting forever")
+    void givenFilterThrowingError_whenPipelinedFilterFlushed_thenFailureIsReported() {
+        StreamingKFilter failingFilter = new StreamingKFilter() {
+            @Override
+            public void processNewRecord(InputRecord input) {
+                if (input.getTime() == 5) {
+                    throw new AssertionError("Failing on purpose");
+                }
+            }
+
+            @Override
+            public Collection<OutputRecord> returnPublishableRecords() {
+                return Collections.emptyList();
+            }
+        };
+
+        try (PipelinedStreamingKFilter pipelinedFilter = new PipelinedStreamingKFilter(failingFilter)) {
+            IllegalStateException exception = assertTimeoutPreemptively(Duration.ofSeconds(10), () -> assertThrows(IllegalStateException.class, () -> {
+                for (InputRecord record : generateRecords(NUMBER_OF_RECORDS)) {
+                    pipelinedFilter.processNewRecord(record);
+                }
+                pipelinedFilter.flush();
+            }));
+
+            assertThat(exception.getCause() instanceof AssertionError, is(true));
+        }
+    }
+
+    @ParameterizedTest(name = "Running with eviction policy \"{0}\"")
+    @MethodSource("clusterEvictionPolicyProvider")
+    @DisplayName("Filter with a memory budget stays within it whatever the drain frequency and respects K-anonymity")
+    void givenMemoryBudget_whenRecordsProvided_thenWeStayWithinBudget(String clusterEvictionPolicy) {
+        long memoryBudget = MemoryFootprint.getMinimumBudget(true) + 16 * MemoryFootprint.CLUSTER_BYTES;
+
+        FadsStreamingKFilter streamingKFilter = FadsStreamingKFilter.builder()
+                .withFindKNearestNeighborsStrategy(BoundedHeapFindKNearestNeighborsStrategy.NAME)
+                .withClusterEvictionPolicy(clusterEvictionPolicy)
+                .withMemoryBudget(memoryBudget)
+                .build();
+
+        Collection<OutputRecord> publishableRecords = new ArrayList<>();
+
+        for (InputRecord record : generateRecords(NUMBER_OF_RECORDS)) {
+            streamingKFilter.processNewRecord(record);
+            assertThat(streamingKFilter.getEstimatedMemoryBytes(), lessThanOrEqualTo(memoryBudget));
+
+            if ((record.getTime() % 100) == 0) {
+                publishableRecords.addAll(streamingKFilter.returnPublishableRecords());
+            }
+        }
+        publishableRecords.addAll(streamingKFilter.returnPublishableRecords());
+
+        assertThat(publishableRecords, is(not(empty())));
+        failBadBuckets(publishableRecords);
+    }
+
+    @ParameterizedTest(name = "Running with micro-batches of {0}")
+    @ValueSource(ints = {2, 16, 200})
+    @DisplayName("Micro-batched filter with a memory budget counts its sorted index and stays within the budget")
+    void givenMemoryBudgetAndMicroBatches_whenRecordsProvided_thenWeStayWithinBudget(int microBatchSize) {
+        FadsStreamingKFilter.Builder builder = FadsStreamingKFilter.builder()
+                .withFindKNearestNeighborsStrategy(BoundedHeapFindKNearestNeighborsStrategy.NAME)
+                .withMicroBatchSize(microBatchSize);
+        long memoryBudget = MemoryFootprint.getMinimumBudget(true) + 16 * MemoryFootprint.CLUSTER_BYTES;
+
+        assertThrows(IllegalArgumentException.class, () -> builder.copy().withMemoryBudget(MemoryFootprint.getMinimumBudget()).build());
+
+        FadsStreamingKFilter streamingKFilter = builder.withMemoryBudget(memoryBudget).build();
+        Collection<OutputRecord> publishableRecords = new ArrayList<>();
+        List<InputRecord> records = generateRecords(NUMBER_OF_RECORDS);
+
+        streamingKFilter.processNewRecord(records.get(0));
+        assertThat(streamingKFilter.getEstimatedMemoryBytes(), is(MemoryFootprint.FILTER_BYTES + MemoryFootprint.BUFFERED_RECORD_BYTES + MemoryFootprint.SORTED_RECORD_BYTES));
+
+        for (InputRecord record : records.subList(1, records.size())) {
+            streamingKFilter.processNewRecord(record);
+            assertThat(streamingKFilter.getEstimatedMemoryBytes(), lessThanOrEqualTo(memoryBudget));
+            publishableRecords.addAll(streamingKFilter.returnPublishableRecords());
+        }
+
+        failBadBuckets(publishableRecords);
+    }
+
+    @ParameterizedTest(name = "Running with eviction policy \"{0}\"")
+    @MethodSource("clusterEvictionPolicyProvider")
+    @DisplayName("Filter with a cluster capacity never holds more reusable clusters than it")
+    void givenClusterCapacity_whenRecordsProvided_thenWeStayWithinCapacity(String clusterEvictionPolicy) {
+        int clusterCapacity = 32;
+
+        FadsStreamingKFilter streamingKFilter = FadsStreamingKFilter.builder()
+                .withFindKNearestNeighborsStrategy(BoundedHeapFindKNearestNeighborsStrategy.NAME)
+                .withClusterEvictionPolicy(clusterEvictionPolicy)
+                .withClusterCapacity(clusterCapacity)
+                .build();
+
+        int largestClusterCount = 0;
+
+        for (InputRecord record : generateRecords(NUMBER_OF_RECORDS)) {
+            streamingKFilter.processNewRecord(record);
+            assertThat(streamingKFilter.getReusableClusterCount(), lessThanOrEqualTo(clusterCapacity));
+            largestClusterCount = Math.max(largestClusterCount, streamingKFilter.getReusableClusterCount());
+            streamingKFilter.returnPublishableRecords();
+        }
+
+        assertThat(largestClusterCount, is(clusterCapacity));
+    }
+
+    @ParameterizedTest(name = "Running with eviction policy \"{0}\"")
+    @MethodSource("clusterEvictionPolicyProvider")
+    @DisplayName("Filter with a memory budget publishes the same records whatever the drain frequency")
+    void givenMemoryBudget_whenDrainedAtDifferentFrequencies_thenOutputIsTheSame(String clusterEvictionPolicy) {
+        FadsStreamingKFilter.Builder builder = FadsStreamingKFilter.builder()
+                .withFindKNearestNeighborsStrategy(BoundedHeapFindKNearestNeighborsStrategy.NAME)
+                .withClusterEvictionPolicy(clusterEvictionPolicy)
+                .withMemoryBudget(MemoryFootprint.getMinimumBudget(true) + 16 * MemoryFootprint.CLUSTER_BYTES);
+        List<InputRecord> records = generateRecords(NUMBER_OF_RECORDS);
+
+        StreamingKFilter drainedEveryRecord = builder.build();
+        Collection<OutputRecord> publishableRecords = new ArrayList<>();
+        for (InputRecord record : records) {
+            drainedEveryRecord.processNewRecord(record);
+            publishableRecords.addAll(drainedEveryRecord.returnPublishableRecords());
+        }
+
+        assertThat(describe(publishableRecords), is(describe(run(builder.build(), records))));
+    }
+
+    @Test
+    @DisplayName("Lowest reuse benefit policy keeps clusters created at the current time")
+    void givenNewAndReusedClusters_whenLowestReuseBenefitSelects_thenNewClusterIsKept() {
+        ClusterEvictionPolicy clusterEvictionPolicy = new LowestReuseBenefitClusterEvictionPolicy();
+        Cluster reusedCluster = new Cluster(Collections.singletonList(new InputRecord(1, 10)), 1);
+        Cluster unusedCluster = new Cluster(Collections.singletonList(new InputRecord(2, 20)), 2);
+        Cluster newCluster = new Cluster(Collections.singletonList(new InputRecord(3, 30)), 3);
+        reusedCluster.markReused(3, 1.0);
+
+        assertThat(clusterEvictionPolicy.selectVictim(Arrays.asList(reusedCluster, unusedCluster, newCluster), 3), is(unusedCluster));
+        assertThat(clusterEvictionPolicy.selectVictim(Arrays.asList(reusedCluster, newCluster), 3), is(reusedCluster));
+        assertThat(clusterEvictionPolicy.selectVictim(Arrays.asList(newCluster), 3), is(newCluster));
+    }
+
+    @ParameterizedTest(name = "Running with micro-batches of {0}")
+    @ValueSource(ints = {2, 16, 200})
+    @DisplayName("Micro-batched filter publishes every due record and respects K-anonymity")
+    void givenMicroBatches_whenRecordsProvided_thenWeRespectKAnonymity(int microBatchSize) {
+        List<InputRecord> records = generateRecords(NUMBER_OF_RECORDS);
+        records.addAll(generateRoundedRecords(NUMBER_OF_RECORDS + 1, NUMBER_OF_RECORDS));
+
+        Collection<OutputRecord> publishableRecords = run(FadsStreamingKFilter.builder()
+                .withClusterCapacity(64)
+                .withMicroBatchSize(microBatchSize)
+                .build(), records);
+
+        assertThat(publishableRecords.size(), greaterThanOrEqualTo(records.size() - StreamingKFilterTestSuite.K * 200));
+        assertThat(publishableRecords.stream().map(OutputRecord::getInputTime).distinct().count(), is((long) publishableRecords.size()));
+        failBadBuckets(publishableRecords);
+    }
+
+    @ParameterizedTest(name = "Running with buffer \"{0}\", cluster store \"{1}\" and strategy \"{2}\"")
+    @MethodSource("componentCombinationProvider")
+    @DisplayName("Micro-batched filter publishes the same records as the per-record filter when both publish the same records at once")
+    void givenRecordsDueTogether_whenPublishedInMicroBatches_thenOutputMatchesPerRecordFilter(String recordsBuffer, String clusterStore, String strategy) {
+        int microBatchSize = 8;
+        List<InputRecord> records = generateGroupedRecords(100, NUMBER_OF_RECORDS);
+        FadsStreamingKFilter.Builder builder = FadsStreamingKFilter.builder()
+                .withRecordsBuffer(recordsBuffer)
+                .withClusterStore(clusterStore)
+                .withFindKNearestNeighborsStrategy(strategy);
+
+        Collection<OutputRecord> perRecordOutput = run(builder.build(), records);
+
+        assertThat(perRecordOutput, is(not(empty())));
+        assertThat(describe(run(builder.copy().withMicroBatchSize(microBatchSize).build(), records)), is(describe(perRecordOutput)));
+    }
+
+    @ParameterizedTest(name = "Running with micro-batches of {0}")
+    @ValueSource(ints = {1, 2, 16, 200})
+    @DisplayName("Filter finds the same neighbors in the sorted index as the strategy finds in the buffer")
+    void givenSortedIndex_whenNeighborsFound_thenOutputMatchesBufferSearch(int microBatchSize) {
+        List<InputRecord> records = generateRecords(NUMBER_OF_RECORDS);
+        records.addAll(generateRoundedRecords(NUMBER_OF_RECORDS + 1, NUMBER_OF_RECORDS));
+        FindKNearestNeighborsStrategy boundedHeap = new BoundedHeapFindKNearestNeighborsStrategy();
+        FindKNearestNeighborsStrategy bufferSearchOnly = new FindKNearestNeighborsStrategy() {
+            @Override
+            public String getName() {
+                return "buffer-search-only";
+            }
+
+            @Override
+            public List<InputRecord> find(int k, InputRecord record, Collection<InputRecord> recordsBuffer) {
+                return boundedHeap.find(k, record, recordsBuffer);
+            }
+        };
+
+        assertThat(describe(run(createMicroBatchedFilter(bufferSearchOnly, microBatchSize), records)),
+                is(describe(run(createMicroBatchedFilter(boundedHeap, microBatchSize), records))));
+    }
+
+    @ParameterizedTest(name = "Running with cluster store \"{0}\"")
+    @MethodSource("clusterStoreProvider")
+    @DisplayName("Reusable cluster sweep resolves the same cluster as the cluster store for every record")
+    void givenClusters_whenSwept_thenEveryRecordGetsTheClusterStoreChoice(String clusterStoreName) {
+        Random random = new Random(44);
+        ClusterStore clusterStore = FadsComponentLoader.load(ClusterStore.class, clusterStoreName);
+
+        for (int creationTime = 1; creationTime <= 300; creationTime++) {
+            List<InputRecord> clusterRecords = new ArrayList<>();
+            for (int i = 0; i < K; i++) {
+                clusterRecords.add(new InputRecord(creationTime, Math.round(random.nextGaussian() * 10 + 50)));
+            }
+            clusterStore.add(new Cluster(clusterRecords, creationTime / 3));
+        }
+
+        List<InputRecord> batch = new ArrayList<>(generateRoundedRecords(1, 500));
+        batch.addAll(generateRecords(500));
+
+        Cluster[] sweptClusters = ReusableClusterSweep.resolve(clusterStore.getClusters(), batch);
+
+        for (int i = 0; i < batch.size(); i++) {
+            assertThat("The cluster for record " + batch.get(i), sweptClusters[i], is(sameInstance(clusterStore.findLeastInfoLoss(batch.get(i)).orElse(null))));
+        }
+    }
+
+    @Test
+    @DisplayName("Auto-tuning filter publishes the same records as the fallback filter until calibration completes")
+    void givenAutoTuningFilter_whenCalibrating_thenOutputMatchesFallbackFilter() {
+        List<InputRecord> records = generateRecords(2_500);
+        AutoTuningStreamingKFilter streamingKFilter = new AutoTuningStreamingKFilter(FadsStreamingKFilter.builder(), 3_000, 0.1, MoreExecutors.directExecutor());
+
+        assertThat(describe(run(streamingKFilter, records)), is(describe(run(FadsStreamingKFilter.builder().build(), records))));
+    }
+
+    @Test
+    @DisplayName("Auto-tuning filter rejects a sample too small to publish from")
+    void givenSampleSmallerThanDelayConstraint_whenAutoTuningFilterBuilt_thenRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> FadsStreamingKFilter.builder().buildAutoTuning(ConfigurationManager.DELAY_CONSTRAINT - 1, 0.1));
+    }
+
+    static Collection<OutputRecord> run(StreamingKFilter streamingKFilter, List<InputRecord> records) {
+        Collection<OutputRecord> publishableRecords = new ArrayList<>();
+
+        for (InputRecord record : records) {
+            streamingKFilter.processNewRecord(record);
+
+            if ((record.getTime() % 10) == 0) {
+                publishableRecords.addAll(streamingKFilter.returnPublishableRecords());
+            }
+        }
+
+        publishableRecords.addAll(streamingKFilter.returnPublishableRecords());
+        return publishableRecords;
+    }
+
+    static List<InputRecord> generateRecords(int numberOfRecords) {
+        Random random = new Random(42);
+        List<InputRecord> records = new ArrayList<>(numberOfRecords);
+
+        for (int time = 1; time <= numberOfRecords; time++) {
+            records.add(new InputRecord(time, random.nextDouble() * 100));
+        }
+
+        return records;
+    }
+
+    // values rounded to whole numbers, so many records share a value
+    static List<InputRecord> generateRoundedRecords(int startTime, int numberOfRecords) {
+        Random random = new Random(43);
+        List<InputRecord> records = new ArrayList<>(numberOfRecords);
+
+        for (int time = startTime; time < startTime + numberOfRecords; time++) {
+            records.add(new InputRecord(time, Math.round(random.nextGaussian() * 3 + 50)));
+        }
+
+        return records;
+    }
+
+    // groups of records with rounded values, each group arriving a delay after the previous one ends, so a whole group is due as soon as
+    // the next one starts and a micro-batch never takes records of the next group
+    static List<InputRecord> generateGroupedRecords(int groupSize, int numberOfRecords) {
+        Random random = new Random(45);
+        List<InputRecord> records = new ArrayList<>(numberOfRecords);
+
+        for (int i = 0; i < numberOfRecords; i++) {
+            records.add(new InputRecord((i / groupSize) * (groupSize + ConfigurationManager.DELAY_CONSTRAINT) + i % groupSize + 1,
+                    Math.round(random.nextGaussian() * 3 + 50)));
+        }
+
+        return records;
+    }
+
+    static List<String> describe(Collection<OutputRecord> outputRecords) {
+        return outputRecords.stream().map(OutputRecord::toString).collect(Collectors.toList());
+    }
+
+    private void failBadBuckets(Collection<OutputRecord> outputRecords) {
+        Map<Double, List<OutputRecord>> anonymisedBuckets = outputRecords.stream().collect(Collectors.groupingBy(OutputRecord::getAnonymisedValue));
+        anonymisedBuckets.forEach((anonValue, anonBucket) -> assertThat("The bucket for anonymised value " + anonValue + " is not K-Anonymous", anonBucket.size(), greaterThanOrEqualTo(K)));
+    }
+
+    private static FadsStreamingKFilter createMicroBatchedFilter(FindKNearestNeighborsStrategy strategy, int microBatchSize) {
+        return new FadsStreamingKFilter(new ListRecordsBuffer(), new ListClusterStore(), strategy, new OldestFirstClusterEvictionPolicy(),
+                Integer.MAX_VALUE, Long.MAX_VALUE, microBatchSize);
+    }
+
+    private static Stream<String> clusterStoreProvider() {
+        return FadsComponentLoader.getNames(ClusterStore.class).stream();
+    }
+
+    private static Stream<String> clusterEvictionPolicyProvider() {
+        return FadsComponentLoader.getNames(ClusterEvictionPolicy.class).stream();
+    }
+
+    private static Stream<Arguments> componentCombinationProvider() {
+        List<Arguments> combinations = new ArrayList<>();
+
+        for (String recordsBuffer : FadsComponentLoader.getNames(RecordsBuffer.class)) {
+            for (String clusterStore : FadsComponentLoader.getNames(ClusterStore.class)) {
+                for (String strategy : FadsComponentLoader.getNames(FindKNearestNeighborsStrategy.class)) {
+                    combinations.add(arguments(recordsBuffer, clusterStore, strategy));
+                }
+            }
+        }
+
+        return combinations.stream();
+    }
+}
@@ -0,0 +1,43 @@
+package algorithms.FADS;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Random;
+
+import core.InputRecord;
+import core.trace.RecordingStreamingKFilter;
+
+/**
+ * Records the traces replayed by {@link StreamingKFilterTraceTestSuite} with the filter from {@link CandidateFilterFactory}.
+ * <p>
+ * Run this after changing the output of the filter on purpose, so the output hash stored at the end of each trace is updated:
+ * {@code java algorithms.FADS.StreamingKFilterTraceRecorder src/test/resources/traces/normal-5k.ktrace}
+ */
+public class StreamingKFilterTraceRecorder {
+
+    public static void main(String[] args) throws IOException {
+        String path = args.length > 0 ? args[0] : "src/test/resources/traces/normal-5k.ktrace";
+        recordNormalTrace(path);
+        System.out.println("Recorded " + path);
+    }
+
+    // 5,000 records normally distributed around 5,000 with one decimal place, published at random intervals of 1 to 50 records
+    private static void recordNormalTrace(String path) throws IOException {
+        Random random = new Random(2019);
+
+        try (RecordingStreamingKFilter recordingFilter = new RecordingStreamingKFilter(CandidateFilterFactory.getStreamingKFilter(), new FileOutputStream(path))) {
+            int nextPublish = 1;
+
+            for (int time = 1; time <= 5000; time++) {
+                recordingFilter.processNewRecord(new InputRecord(time, Math.round(random.nextGaussian() * 1000 + 50_000) / 10.0));
+
+                if (time == nextPublish) {
+                    recordingFilter.returnPublishableRecords();
+                    nextPublish += 1 + random.nextInt(50);
+                }
+            }
+
+            recordingFilter.returnPublishableRecords();
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package algorithms.FADS;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Random;
+
+import algorithms.FADS.impl.FadsStreamingKFilter;
+import algorithms.FADS.impl.strategies.impl.BoundedHeapFindKNearestNeighborsStrategy;
+import core.InputRecord;
+import core.OutputRecord;
+import core.trace.RecordingStreamingKFilter;
+import core.trace.ReplayReport;
+import core.trace.Trace;
+import core.trace.TraceReplayer;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.core.Is.is;
+
+/**
+ * Replays recorded traces against the filter from {@link CandidateFilterFactory} to catch changes to its output or throughput.
+ * <p>
+ * Each trace stores a hash of the output at capture time, so if the output of the filter is changed on purpose the traces have to be
+ * recorded again with {@link StreamingKFilterTraceRecorder}. The throughput floor defaults to {@value #DEFAULT_MIN_RECORDS_PER_SECOND}
+ * records per second and can be changed with the system property {@value #MIN_RECORDS_PER_SECOND_PROPERTY}.
+ */
+@DisplayName("Trace Replay Test Suite")
+public class StreamingKFilterTraceTestSuite {
+
+    private static final String NORMAL_TRACE = "/traces/normal-5k.ktrace";
+    private static final String MIN_RECORDS_PER_SECOND_PROPERTY = "trace.minRecordsPerSecond";
+    private static final double DEFAULT_MIN_RECORDS_PER_SECOND = 200_000;
+    private static final int WARM_UP_REPLAYS = 5;
+    // the micro-batched path has more code to compile, so it takes longer to warm up
+    private static final int MICRO_BATCH_REPLAYS = 50;
+
+    @Test
+    @DisplayName("Replaying a recorded stream returns the same records as when it was recorded")
+    void givenRecordedStream_whenReplayed_thenOutputMatchesCapture() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Collection<OutputRecord> capturedRecords = new ArrayList<>();
+        Random random = new Random(7);
+
+        try (RecordingStreamingKFilter recordingFilter = new RecordingStreamingKFilter(CandidateFilterFactory.getStreamingKFilter(), out)) {
+            for (int time = 1; time <= 3000; time++) {
+                recordingFilter.processNewRecord(new InputRecord(time, random.nextDouble() * 100));
+
+                if ((time % (1 + random.nextInt(20))) == 0) {
+                    capturedRecords.addAll(recordingFilter.returnPublishableRecords());
+                }
+            }
+        }
+
+        Trace trace = Trace.read(new ByteArrayInputStream(out.toByteArray()));
+        ReplayReport firstReport = TraceReplayer.replay(trace, CandidateFilterFactory.getStreamingKFilter());
+        ReplayReport secondReport = TraceReplayer.replay(trace, CandidateFilterFactory.getStreamingKFilter());
+
+        assertThat(trace.getRecordCount(), is(3000));
+        assertThat(firstReport.getOutputCount(), is((long) capturedRecords.size()));
+        assertThat(firstReport.getCapturedOutputCount(), is((long) capturedRecords.size()));
+        assertThat(secondReport.getChecksum(), is(firstReport.getChecksum()));
+        assertThat("The replay returned different records than the capture.", firstReport.matchesCapture(), is(true));
+    }
+
+    @Test
+    @DisplayName("Filter output and throughput on the recorded normal distribution trace have not regressed")
+    void givenNormalTrace_whenReplayed_thenOutputAndThroughputHaveNotRegressed() throws IOException {
+        Trace trace = readTrace(NORMAL_TRACE);
+
+        ReplayReport bestReport = TraceReplayer.replay(trace, CandidateFilterFactory.getStreamingKFilter());
+        for (int i = 0; i < WARM_UP_REPLAYS; i++) {
+            ReplayReport report = TraceReplayer.replay(trace, CandidateFilterFactory.getStreamingKFilter());
+            if (report.getElapsedNanos() < bestReport.getElapsedNanos()) {
+                bestReport = report;
+            }
+        }
+
+        System.out.println(NORMAL_TRACE + ": " + bestReport);
+
+        assertThat("The output on " + NORMAL_TRACE + " has changed since it was recorded.", bestReport.matchesCapture(), is(true));
+
+        double minRecordsPerSecond = Double.parseDouble(System.getProperty(MIN_RECORDS_PER_SECOND_PROPERTY, String.valueOf(DEFAULT_MIN_RECORDS_PER_SECOND)));
+        assertThat("The throughput on " + NORMAL_TRACE + " has regressed.", bestReport.getRecordsPerSecond(), greaterThanOrEqualTo(minRecordsPerSecond));
+    }
+
+    @Test
+    @DisplayName("Micro-batches lower the cost per record on the recorded normal distribution trace")
+    void givenNormalTrace_whenReplayedInMicroBatches_thenThroughputIsHigherThanPerRecord() throws IOException {
+        Trace trace = readTrace(NORMAL_TRACE);
+        // both walk the same sorted index for neighbors, so only the batching differs
+        FadsStreamingKFilter.Builder perRecord = FadsStreamingKFilter.builder()
+                .withFindKNearestNeighborsStrategy(BoundedHeapFindKNearestNeighborsStrategy.NAME);
+        FadsStreamingKFilter.Builder microBatched = perRecord.copy().withMicroBatchSize(16);
+
+        ReplayReport bestPerRecordReport = TraceReplayer.replay(trace, perRecord.build());
+        ReplayReport bestMicroBatchedReport = TraceReplayer.replay(trace, microBatched.build());
+        for (int i = 0; i < MICRO_BATCH_REPLAYS; i++) {
+            ReplayReport perRecordReport = TraceReplayer.replay(trace, perRecord.build());
+            if (perRecordReport.getElapsedNanos() < bestPerRecordReport.getElapsedNanos()) {
+                bestPerRecordReport = perRecordReport;
+            }
+
+            ReplayReport microBatchedReport = TraceReplayer.replay(trace, microBatched.build());
+            if (microBatchedReport.getElapsedNanos() < bestMicroBatchedReport.getElapsedNanos()) {
+                bestMicroBatchedReport = microBatchedReport;
+            }
+        }
+
+        System.out.println(NORMAL_TRACE + " per record: " + bestPerRecordReport);
+        System.out.println(NORMAL_TRACE + " in micro-batches of 16: " + bestMicroBatchedReport);
+
+        assertThat("Micro-batches did not lower the cost per record on " + NORMAL_TRACE + ".",
+                bestMicroBatchedReport.getRecordsPerSecond(), greaterThan(bestPerRecordReport.getRecordsPerSecond()));
+    }
+
+    private Trace readTrace(String resource) throws IOException {
+        try (InputStream in = getClass().getResourceAsStream(resource)) {
+            return Trace.read(in);
+        }
+    }
+}